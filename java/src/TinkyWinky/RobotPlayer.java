@@ -7,6 +7,7 @@ import battlecode.common.Direction;
 import battlecode.common.GameActionException;
 import battlecode.common.MapInfo;
 import battlecode.common.MapLocation;
+import battlecode.common.Message;
 import battlecode.common.PaintType;
 import battlecode.common.RobotController;
 import battlecode.common.RobotInfo;
@@ -27,6 +28,303 @@ public class RobotPlayer {
     static int turnCount = 0;
 	static int spawnType = 0;
 
+	// Message types live in the top 4 bits of every message we send
+	static final int MSG_COVERAGE = 1;
+	static final int MSG_TOWER = 2;
+	static final int MSG_RUIN = 3;
+	static final int MSG_WALLS = 4;
+	static final int MSG_CLEANUP = 5;
+	static final int MSG_PROGRESS = 6;
+	static final int MSG_PROFILE = 7;
+	// Robots queue what they want a tower to hear here and send one per turn when a tower is in range
+	static int[] outbox = new int[16];
+	static int outboxCount = 0;
+	static int messagesLeft = 0;
+	static int lastReportRound = -100;
+	static final UnitType[] unitTypes = UnitType.values();
+
+	// Robots sensed at the start of the turn, shared by everything that runs this turn
+	static RobotInfo[] sensedRobots = new RobotInfo[0];
+
+	// Tower registry, every ally and enemy tower we've seen or been told about. Locations are packed.
+	static final int MAX_TOWERS = 32;
+	static int towerCount = 0;
+	static int[] towerLocs = new int[MAX_TOWERS];
+	static UnitType[] towerTypes = new UnitType[MAX_TOWERS];
+	static boolean[] towerAlly = new boolean[MAX_TOWERS];
+	static int[] towerHealth = new int[MAX_TOWERS];
+	static int[] towerSeen = new int[MAX_TOWERS];
+	static int shareIndex = 0;
+	static int newbornId = -1;
+
+	// Enemy robot tracker, the last two sightings of every enemy unit we've seen lately. Locations are packed.
+	static final int MAX_TRACKED = 16;
+	static int trackedCount = 0;
+	static int[] trackedIds = new int[MAX_TRACKED];
+	static UnitType[] trackedTypes = new UnitType[MAX_TRACKED];
+	static int[] trackedLocs = new int[MAX_TRACKED];
+	static int[] trackedPrevLocs = new int[MAX_TRACKED];
+	static int[] trackedSeen = new int[MAX_TRACKED];
+	static int[] trackedPrevSeen = new int[MAX_TRACKED];
+	static int[] trackedPaint = new int[MAX_TRACKED];
+
+	// Map memory, indexed by packLoc(). The low bits of each entry hold the tile's coverage state.
+	static final int TILE_UNKNOWN = 0;
+	static final int TILE_EMPTY = 1;
+	static final int TILE_ALLY = 2;
+	static final int TILE_ENEMY = 3;
+	static final int TILE_BLOCKED = 4;
+	static final int TILE_STATE = 7;
+	static final int TILE_WALL = 8;
+	// PaintType ordinal of the tile's mark
+	static final int TILE_MARK_SHIFT = 4;
+	static final int TILE_MARK = 7 << TILE_MARK_SHIFT;
+	// Set by learnRuin(), so a ruin we only heard about still counts when checking symmetries
+	static final int TILE_RUIN = 1 << 7;
+	static int[] tileMemory = null;
+	static int[] coverageCounts = new int[5];
+	// Exploration index over 8x8 super-cells (cell (x >> 3) * 8 + (y >> 3)), counting the tiles we know in each
+	static int[] cellKnown = new int[64];
+	static int[] cellSize = new int[64];
+	static int exploreCell = -1;
+	// Every ruin we know of (packed), and the 4x4 wall blocks around chokepoints as MSG_WALLS messages
+	static final int MAX_RUINS = 64;
+	static int[] knownRuins = new int[MAX_RUINS];
+	static int ruinCount = 0;
+	static final int MAX_WALL_BLOCKS = 32;
+	static int[] wallBlocks = new int[MAX_WALL_BLOCKS];
+	static int wallBlockCount = 0;
+	static boolean[] reportedBlocks = new boolean[256];
+	// Centers (packed) of SRPs whose secondary mark pair is down but that haven't been completed yet
+	static final int MAX_SRPS = 32;
+	static int[] pendingSrps = new int[MAX_SRPS];
+	static int srpCount = 0;
+	// Team wide coverage percentages, only kept up to date by towers from robot reports
+	static int towerAllyCoverage = 0;
+	static int towerEnemyCoverage = 0;
+	static final int ENDGAME_ROUND = 1750;
+
+	// 5x5 pattern masks indexed by paintPattern() type (1 money, 2 paint, 3 defense, 4 SRP), bit (dy+2)*5 + (dx+2)
+	// from the center. PATTERN_PAINT is every tile the pattern covers, patternSecondary the ones in secondary,
+	// read from the engine by loadPatterns() on the first turn.
+	static final int[] PATTERN_PAINT = {0, 0x1FFEFFF, 0x1FFEFFF, 0x1FFEFFF, 0x1FFFFFF};
+	static final UnitType[] PATTERN_TOWERS = {null, UnitType.LEVEL_ONE_MONEY_TOWER, UnitType.LEVEL_ONE_PAINT_TOWER, UnitType.LEVEL_ONE_DEFENSE_TOWER};
+	static int[] patternSecondary = new int[5];
+
+	public static void loadPatterns(RobotController rc) throws GameActionException {
+		for (int type = 1; type < PATTERN_TOWERS.length; type++) {
+			patternSecondary[type] = patternMask(rc.getTowerPattern(PATTERN_TOWERS[type]));
+		}
+		patternSecondary[4] = patternMask(rc.getResourcePattern());
+	}
+
+	// Packs an engine pattern, indexed [dx + 2][dy + 2] with true for secondary paint, into a 25 bit mask
+	public static int patternMask(boolean[][] pattern) {
+		int mask = 0;
+		for (int bit = 0; bit < 25; bit++) {
+			if (pattern[bit % 5][bit / 5]) {mask |= 1 << bit;}
+		}
+		return mask;
+	}
+
+	// Which of the given pattern tiles still need our paint, from a single pass over them. Tiles we can't see count
+	// as wrong. Soldiers skip enemy paint, which they can't paint over, other units only go after enemy paint.
+	public static int patternMismatch(RobotController rc, MapLocation center, int tiles, int patternType) throws GameActionException {
+		int secondary = patternSecondary[patternType];
+		boolean soldier = rc.getType() == UnitType.SOLDIER;
+		int mismatch = 0;
+		for (int todo = tiles; todo != 0; todo &= todo - 1) {
+			int bit = Integer.numberOfTrailingZeros(todo);
+			MapLocation target = center.translate(bit % 5 - 2, bit / 5 - 2);
+			if (!rc.canSenseLocation(target)) {
+				mismatch |= 1 << bit;
+				continue;
+			}
+			PaintType currentPaint = senseInfo(rc, target).getPaint();
+			PaintType desiredPaint = ((secondary >>> bit) & 1) != 0 ? PaintType.ALLY_SECONDARY : PaintType.ALLY_PRIMARY;
+			if (currentPaint == desiredPaint) {continue;}
+			if (soldier ? !currentPaint.isEnemy() : currentPaint.isEnemy()) {mismatch |= 1 << bit;}
+		}
+		return mismatch;
+	}
+
+	// Pattern tiles in attack range of a spot, from the spot's offset to the pattern center
+	public static int attackCover(MapLocation spot, MapLocation center) {
+		int ox = spot.x - center.x;
+		int oy = spot.y - center.y;
+		if (attackCover == null || ox < -5 || ox > 5 || oy < -5 || oy > 5) {return 0;}
+		return attackCover[(oy + 5) * 11 + ox + 5];
+	}
+
+	// The move that brings the most of the given pattern tiles into attack range, or null if staying put is as good
+	public static Direction coverStep(RobotController rc, MapLocation center, int tiles) {
+		MapLocation here = rc.getLocation();
+		int bestCover = Integer.bitCount(tiles & attackCover(here, center));
+		Direction best = null;
+		for (Direction aDir : directions) {
+			if (!rc.canMove(aDir)) {continue;}
+			int cover = Integer.bitCount(tiles & attackCover(here.add(aDir), center));
+			if (cover > bestCover) {
+				best = aDir;
+				bestCover = cover;
+			}
+		}
+		return best;
+	}
+
+	// Paints the closest tile of the mask we can reach, returning its bit, or -1 if none is in reach
+	public static int paintClosest(RobotController rc, MapLocation center, int mask, int secondary) throws GameActionException {
+		if (!rc.isActionReady()) {return -1;}
+		MapLocation here = rc.getLocation();
+		int best = -1;
+		int bestDist = 99;
+		for (int todo = mask; todo != 0; todo &= todo - 1) {
+			int bit = Integer.numberOfTrailingZeros(todo);
+			MapLocation target = center.translate(bit % 5 - 2, bit / 5 - 2);
+			int targetDist = here.distanceSquaredTo(target);
+			if (targetDist < bestDist && rc.canAttack(target)) {
+				best = bit;
+				bestDist = targetDist;
+			}
+		}
+		if (best < 0) {return -1;}
+		MapLocation target = center.translate(best % 5 - 2, best / 5 - 2);
+		rc.setIndicatorDot(target, 1, 1, 1);
+		rc.attack(target, ((secondary >>> best) & 1) != 0);
+		forgetInfo(target);
+		return best;
+	}
+
+	// Build job carried across turns by paintPattern(): the pattern's packed center and type, the tiles that were
+	// still wrong at the end of our last turn on it, and the round each tile was last checked, by pattern bit
+	static int jobCenter = -1;
+	static int jobType = 0;
+	static int jobMask = 0;
+	static int[] jobVerified = new int[25];
+	static final int JOB_RECHECK = 10;
+
+	// Footprint bits in order around the center, starting west and going counterclockwise. Builders split this
+	// ring into arcs so they each work one side of the pattern.
+	static final int[] PATTERN_RING = {5, 0, 6, 1, 2, 7, 3, 4, 8, 9, 13, 14, 19, 18, 24, 23, 17, 22, 21, 16, 20, 15, 10, 11};
+
+	// Our arc of a pattern footprint. Soldiers at the pattern sort themselves by ID and the ring is cut into as many
+	// arcs as there are builders, so everyone gets the same split without talking. The center is anyone's. Until
+	// we're close enough to be counted by the others ourselves we take no share and work the whole mask.
+	public static int builderShare(RobotController rc, MapLocation center) {
+		if (rc.getLocation().distanceSquaredTo(center) > 8) {return -1;}
+		int builders = ruinBuilders(rc, center, false) + 1;
+		if (builders == 1) {return -1;}
+		int rank = ruinBuilders(rc, center, true);
+		int share = 1 << 12;
+		for (int i = rank * 24 / builders; i < (rank + 1) * 24 / builders; i++) {share |= 1 << PATTERN_RING[i];}
+		return share;
+	}
+
+	// Cleanup requests for patterns stalled on enemy paint. Soldiers send them to towers, towers hand each one to
+	// at most CLEANUP_MOPPERS different moppers. Message is MSG_CLEANUP, pattern type in bits 12-14, packed center.
+	static final int MAX_CLEANUPS = 8;
+	static final int CLEANUP_MOPPERS = 2;
+	// Set on the tower-to-tower broadcast that says a mopper has been sent
+	static final int CLEANUP_DISPATCHED = 1 << 15;
+	static int[] cleanupMsgs = new int[MAX_CLEANUPS];
+	static int[] cleanupRounds = new int[MAX_CLEANUPS];
+	static int[] cleanupSent = new int[MAX_CLEANUPS];
+	static int[] cleanupMopper = new int[MAX_CLEANUPS];
+	static int cleanupCount = 0;
+	// The cleanup a mopper has been sent on, 0 for none
+	static int cleanupJob = 0;
+	static int cleanupUntil = 0;
+
+	// Build progress reported by builders and passed on by towers. Message is MSG_PROGRESS, the round it was made
+	// divided by 4 in bits 23-27, pattern type in bits 20-22, builders in bits 17-19, tiles left in bits 12-16 and
+	// the packed ruin. Freshness goes by that creation stamp, however long the record spent in outboxes.
+	static final int MAX_PROGRESS = 16;
+	static final int PROGRESS_TTL = 30;
+	static int[] progressMsgs = new int[MAX_PROGRESS];
+	static int progressCount = 0;
+	static int lastProgressRound = -100;
+
+	// Ruin contention. Past CROWDED_RUIN senior builders a ruin is left to them, and the last few we
+	// backed off from (ruin or SRP center) are skipped by the ruin and SRP pickers for a while.
+	static final int CROWDED_RUIN = 3;
+	static final int MAX_AVOID = 4;
+	static int[] avoidRuins = new int[MAX_AVOID];
+	static int[] avoidUntil = new int[MAX_AVOID];
+
+	// Sensing governor state, see planSensing()
+	static int lastTurnRound = -1;
+	static int overrunTurns = 0;
+	// Bytecode left once the last turn's own work was done, before the spare went to initTables()
+	static int lastTurnLeft = Integer.MAX_VALUE;
+	static int lastFullScan = -100;
+	static int lastBuildRound = -100;
+	static int tileRadius = -1;
+	static int robotRadius = -1;
+	static boolean ruinsFromMemory = false;
+
+	// Strategy profile for the map. The initial towers classify on round 1, broadcast their pick and all settle on
+	// the one from the lowest tower ID (profileFrom). Robots get it with the knowledge towers pass on, towers built
+	// later from the coverage reports robots send. Everything below it is set by applyProfile().
+	static final int PROFILE_DEFAULT = 0;
+	static final int PROFILE_RUSH = 1;
+	static final int PROFILE_OPEN = 2;
+	static final int PROFILE_WALLED = 3;
+	static final String[] profileNames = {"default", "rush", "open", "walled"};
+	static int profile = -1;
+	static int profileFrom = Integer.MAX_VALUE;
+	static int rushRounds = 100;
+	static int soldierRefillPaint = 105;
+	static int splasherRefillPaint = 200;
+	static UnitType[] earlySpawns = {UnitType.SOLDIER, UnitType.SPLASHER};
+	static UnitType[] lateSpawns = {UnitType.SOLDIER, UnitType.SPLASHER, UnitType.SOLDIER, UnitType.SPLASHER};
+
+	// senseMapInfo memo, indexed by packLoc(). An entry is only good while its stamp matches memoStamp, which
+	// moves on every turn (and after a splash), so the arrays never need clearing.
+	static MapInfo[] infoMemo = null;
+	static int[] infoStamp = null;
+	static int memoStamp = 0;
+
+	// Map-sized tables, filled in by initTables() from whatever bytecode is left at the end of a turn
+	static int initStage = 0;
+	static int initRow = 0;
+	static final int INIT_DONE = 3;
+	static int mapWidth;
+	static int mapHeight;
+	static MapLocation mapCenter;
+	static MapLocation spawnLoc;
+	// One row of walls per y, bit x set for a wall at (x, y)
+	static long[] wallRows = null;
+	// Squared distance to the map center, indexed by packLoc()
+	static int[] centerDist = null;
+	// Pattern tiles a unit can attack from each spot around a pattern center, spots within 5 tiles, indexed by
+	// (oy + 5) * 11 + (ox + 5) with the same bit layout as the pattern masks
+	static int[] attackCover = null;
+	// SRP lattice: centers at x = latticeX and y = latticeY mod 4, so neighbouring patterns share their edge tiles.
+	// The offsets center the lattice on the map from its size alone, so every unit works out the same one. A point is
+	// blocked when its footprint would overlap a tower pattern. Indexed by ((x >> 2) << 4) | (y >> 2).
+	static int latticeX = 2;
+	static int latticeY = 2;
+	static boolean[] latticeBlocked = new boolean[256];
+	// Symmetries the map could still have, and where each one puts the enemy copy of our spawn
+	static final int SYM_ROTATE = 1;
+	static final int SYM_FLIP_X = 2;
+	static final int SYM_FLIP_Y = 4;
+	static int symmetries = SYM_ROTATE | SYM_FLIP_X | SYM_FLIP_Y;
+
+	// Vision bitboards, rebuilt by the map ingestion pass every turn. Bit row*9 + col stands for
+	// boardOrigin.translate(col - 4, row - 4); rows 0-6 live in the low long and rows 7-8 in the high long.
+	// Paint boards are indexed by PaintType ordinal.
+	static MapLocation boardOrigin = new MapLocation(0, 0);
+	static long[] paintLo = new long[PaintType.values().length];
+	static long[] paintHi = new long[PaintType.values().length];
+	static long wallLo, wallHi, ruinLo, ruinHi, seenLo, seenHi;
+	static final int PRIMARY = PaintType.ALLY_PRIMARY.ordinal();
+	static final int SECONDARY = PaintType.ALLY_SECONDARY.ordinal();
+	static final int ENEMY_PRIMARY = PaintType.ENEMY_PRIMARY.ordinal();
+	static final int ENEMY_SECONDARY = PaintType.ENEMY_SECONDARY.ordinal();
+	// 5x5 neighbourhood mask (bit (dy+2)*5 + (dx+2)) of every offset within radius squared 4
+	static final int DISC_4 = 0x477DC4;
+
     /**
      * A random number generator.
      * We will use this RNG to make some random moves. The Random class is provided by the java.util.Random
@@ -77,12 +375,32 @@ public class RobotPlayer {
                 // use different strategies on different robots. If you wish, you are free to rewrite
                 // this into a different control structure!
 				rc.setIndicatorString("");
+				if (initStage == 0) {initTables(rc, false);}
+				messagesLeft = rc.getType().isTowerType() ? 20 : 1;
+				memoStamp++;
+				planSensing(rc);
+				if (tileRadius != 0) {ingestTiles(rc, rc.senseNearbyMapInfos(tileRadius));}
+				sensedRobots = rc.senseNearbyRobots(robotRadius);
+				ingestRobots(rc, sensedRobots);
+				trackEnemies(rc, sensedRobots);
+				if (!rc.getType().isTowerType()) {reportChokepoints(rc);}
+				// Every turn, so no record lives long enough for its 128-round stamp to wrap back to fresh
+				expireProgress(rc.getRoundNum());
+				readMessages(rc);
+				if (profile < 0 && turnCount == 1 && rc.getType().isTowerType()) {
+					applyProfile(rc, classifyMap(rc));
+					profileFrom = rc.getID();
+					if (rc.canBroadcastMessage()) {rc.broadcastMessage((MSG_PROFILE << 28) | profile);}
+				}
 				switch (rc.getType()){
 					case SOLDIER -> runSoldier(rc);
 					case MOPPER -> runMopper(rc);
 					case SPLASHER -> runSplasher(rc);
 					default -> runTower(rc);
 					}
+				if (Clock.getBytecodesLeft() > 1500) {completePatterns(rc);}
+				lastTurnLeft = Clock.getBytecodesLeft();
+				if (initStage < INIT_DONE) {initTables(rc, true);}
                 }
              catch (GameActionException e) {
                 // Oh no! It looks like we did something illegal in the Battlecode world. You should
@@ -110,39 +428,130 @@ public class RobotPlayer {
 
 	public static void spawning(RobotController rc) throws GameActionException {
 		rc.setIndicatorString(Integer.toString(spawnType));
+		MapLocation enemyTower = nearestKnownTower(rc, false, false);
+		boolean enemyTowerNear = enemyTower != null && rc.getLocation().distanceSquaredTo(enemyTower) <= 400;
+		UnitType[] rotation = rc.getRoundNum() < rushRounds ? earlySpawns : lateSpawns;
+		UnitType next = rotation[spawnType % rotation.length];
+		// Each swap only ever touches one spawn in four so the rotation still gets its say
+		if (next == UnitType.SPLASHER && enemyTowerNear && spawnType % 4 == 3) {
+			// Only soldiers can take down the enemy tower we know about, skip a splasher for one
+			next = UnitType.SOLDIER;
+		} else if (next == UnitType.SOLDIER && towerEnemyCoverage > towerAllyCoverage && spawnType % 4 == 2 && rc.getRoundNum() >= rushRounds) {
+			// Losing the paint race, trade a builder for a painter
+			next = UnitType.SPLASHER;
+		}
 		for (Direction dir : shuffleArray(directions,rng)) {
 			MapLocation nextLoc = rc.getLocation().add(dir);
-		if(rc.getRoundNum() < 100){
-			if(spawnType == 2){
-				spawnType = 0;
-			}
-			if(spawnType == 0 && rc.canBuildRobot(UnitType.SOLDIER, nextLoc)){
-				spawnType++;
-				rc.buildRobot(UnitType.SOLDIER, nextLoc);
-			} else if (spawnType == 1 && rc.canBuildRobot(UnitType.SPLASHER, nextLoc)){
+			if (rc.canBuildRobot(next, nextLoc)) {
 				spawnType++;
-				rc.buildRobot(UnitType.SPLASHER, nextLoc);
+				rc.buildRobot(next, nextLoc);
+				RobotInfo born = rc.senseRobotAtLocation(nextLoc);
+				if (born != null) {newbornId = born.ID;}
+				return;
 			}
-		} else {
-			if(spawnType == 4){
-				spawnType = 0;
+		}
+	}
+
+	// Background sweep for finished patterns nobody has claimed yet, run by every unit (towers too) on spare
+	// bytecode. Looks at the laid out SRPs and marked ruins close enough to complete.
+	public static void completePatterns(RobotController rc) throws GameActionException {
+		MapLocation here = rc.getLocation();
+		for (int i = srpCount; --i >= 0 && Clock.getBytecodesLeft() > 800;) {
+			MapLocation center = unpackLoc(pendingSrps[i]);
+			if (here.distanceSquaredTo(center) > 8) {continue;}
+			if (rc.canCompleteResourcePattern(center)) {
+				rc.setIndicatorString("Completing SRP at " + center);
+				rc.completeResourcePattern(center);
+				memoStamp++;
+				removeSrp(pendingSrps[i]);
 			}
-			if(spawnType == 0 || spawnType == 2 && rc.canBuildRobot(UnitType.SOLDIER, nextLoc)){
-				spawnType++;
-				rc.buildRobot(UnitType.SOLDIER, nextLoc);
-			} else if (spawnType == 1 || spawnType == 3 && rc.canBuildRobot(UnitType.SPLASHER, nextLoc)){
-				spawnType++;
-				rc.buildRobot(UnitType.SPLASHER, nextLoc);
-			} else if (spawnType == 4 && rc.canBuildRobot(UnitType.MOPPER, nextLoc)){
-				spawnType++;
-				rc.buildRobot(UnitType.MOPPER, nextLoc);
+		}
+		for (int i = ruinCount; --i >= 0 && Clock.getBytecodesLeft() > 800;) {
+			MapLocation ruin = unpackLoc(knownRuins[i]);
+			if (here.distanceSquaredTo(ruin) > 8) {continue;}
+			int plans = plannedPatterns(ruin);
+			for (int type = 3; type >= 1; type--) {
+				if ((plans & (1 << type)) == 0) {continue;}
+				UnitType towerType = PATTERN_TOWERS[type];
+				if (rc.canCompleteTowerPattern(towerType, ruin)) {
+					rc.setIndicatorString("Completing tower at " + ruin);
+					rc.completeTowerPattern(towerType, ruin);
+					memoStamp++;
+					break;
+				}
 			}
+		}
+	}
 
+	// Which tower a new ruin should become. Under attack it's a defense tower. Otherwise we take the chips and paint
+	// per round of the towers we know of, and see how many units per round that pays for at the spawn rotation's
+	// average cost. The new tower goes to whichever resource lets that number grow the most.
+	public static UnitType chooseTowerType(RobotController rc, boolean enemies) {
+		if (enemies) {return UnitType.LEVEL_ONE_DEFENSE_TOWER;}
+		int chips = 0;
+		int paint = 0;
+		for (int i = 0; i < towerCount; i++) {
+			if (!towerAlly[i]) {continue;}
+			chips += towerTypes[i].moneyPerTurn;
+			paint += towerTypes[i].paintPerTurn;
+		}
+		UnitType[] rotation = rc.getRoundNum() < rushRounds ? earlySpawns : lateSpawns;
+		int unitChips = 0;
+		int unitPaint = 0;
+		for (UnitType aType : rotation) {
+			unitChips += aType.moneyCost;
+			unitPaint += aType.paintCost;
 		}
+		// Units per round scaled by the rotation length, which is the same on both sides so it can stay
+		int withMoney = Math.min((chips + UnitType.LEVEL_ONE_MONEY_TOWER.moneyPerTurn) * 1000 / Math.max(1, unitChips), (paint + UnitType.LEVEL_ONE_MONEY_TOWER.paintPerTurn) * 1000 / Math.max(1, unitPaint));
+		int withPaint = Math.min((chips + UnitType.LEVEL_ONE_PAINT_TOWER.moneyPerTurn) * 1000 / Math.max(1, unitChips), (paint + UnitType.LEVEL_ONE_PAINT_TOWER.paintPerTurn) * 1000 / Math.max(1, unitPaint));
+		if (withMoney == withPaint) {
+			// Nothing known to go on yet, fall back on how our bank compares to the round
+			return rc.getMoney() < rc.getRoundNum() ? UnitType.LEVEL_ONE_MONEY_TOWER : UnitType.LEVEL_ONE_PAINT_TOWER;
+		}
+		return withMoney > withPaint ? UnitType.LEVEL_ONE_MONEY_TOWER : UnitType.LEVEL_ONE_PAINT_TOWER;
+	}
 
-    }
-}
+	// Picks a strategy profile from what an initial tower sees on round 1: map size, how far the center is,
+	// and how many walls and ruins are in vision. Robots never classify, they take the profile from towers.
+	public static int classifyMap(RobotController rc) {
+		int area = rc.getMapWidth() * rc.getMapHeight();
+		int spawnCenterDist = rc.getLocation().distanceSquaredTo(mapCenter);
+		int seen = Long.bitCount(seenLo) + Long.bitCount(seenHi);
+		int wallPct = seen == 0 ? 0 : (Long.bitCount(wallLo) + Long.bitCount(wallHi)) * 100 / seen;
+		int ruins = Long.bitCount(ruinLo) + Long.bitCount(ruinHi);
+		if (area <= 900 || spawnCenterDist <= 64) {return PROFILE_RUSH;}
+		// Rushing the center through a maze wastes the opening
+		if (wallPct >= 20) {return PROFILE_WALLED;}
+		// Lots of room and little to build, area is won by splashers
+		if (area >= 1600 && ruins <= 1) {return PROFILE_OPEN;}
+		return PROFILE_DEFAULT;
+	}
 
+	public static void applyProfile(RobotController rc, int newProfile) {
+		if (newProfile == profile) {return;}
+		profile = newProfile;
+		rushRounds = 100;
+		soldierRefillPaint = 105;
+		splasherRefillPaint = 200;
+		earlySpawns = new UnitType[] {UnitType.SOLDIER, UnitType.SPLASHER};
+		lateSpawns = new UnitType[] {UnitType.SOLDIER, UnitType.SPLASHER, UnitType.SOLDIER, UnitType.SPLASHER};
+		if (profile == PROFILE_RUSH) {
+			rushRounds = 60;
+			soldierRefillPaint = 80;
+			splasherRefillPaint = 150;
+			earlySpawns = new UnitType[] {UnitType.SOLDIER, UnitType.SOLDIER, UnitType.SPLASHER};
+			lateSpawns = new UnitType[] {UnitType.SOLDIER, UnitType.SPLASHER, UnitType.SOLDIER, UnitType.MOPPER};
+		} else if (profile == PROFILE_WALLED) {
+			rushRounds = 50;
+			lateSpawns = new UnitType[] {UnitType.SOLDIER, UnitType.SOLDIER, UnitType.SPLASHER, UnitType.MOPPER};
+		} else if (profile == PROFILE_OPEN) {
+			rushRounds = 150;
+			earlySpawns = new UnitType[] {UnitType.SOLDIER, UnitType.SOLDIER, UnitType.SPLASHER};
+			lateSpawns = new UnitType[] {UnitType.SOLDIER, UnitType.SPLASHER, UnitType.SPLASHER, UnitType.SOLDIER, UnitType.MOPPER};
+		}
+		rc.setIndicatorString("Profile " + profileNames[profile]);
+	}
 
 	static Direction[] shuffleArray(Direction[] dirs, Random rnd) {
 		for (int i = dirs.length - 1; i > 0; i--) {
@@ -156,121 +565,110 @@ public class RobotPlayer {
 	  }
 
 	public static void paintPattern(RobotController rc, MapLocation center, int patternType) throws GameActionException{
+		lastBuildRound = rc.getRoundNum();
 		//rc.setIndicatorString(Integer.toString(patternType));
 		rc.setIndicatorDot(center, 0, 0, 0);
-		 int[][] paintTowerPattern = {
-            {2, 1, 1, 1, 2},
-            {1, 2, 1, 2, 1},
-            {1, 1, 0, 1, 1},
-            {1, 2, 1, 2, 1},
-            {2, 1, 1, 1, 2}
-    	};
-		int[][] moneyTowerPattern = {
-            {1, 2, 2, 2, 1},
-            {2, 2, 1, 2, 2},
-            {2, 1, 0, 1, 2},
-            {2, 2, 1, 2, 2},
-            {1, 2, 2, 2, 1}
-    	};
-		int[][] defenseTowerPattern = {
-            {1, 1, 2, 1, 1},
-            {1, 2, 2, 2, 1},
-            {2, 2, 0, 2, 2},
-            {1, 2, 2, 2, 1},
-            {1, 1, 2, 1, 1}
-    	};
-		int[][] SRPPattern = {
-            {2, 1, 2, 1, 2},
-            {1, 2, 1, 2, 1},
-            {2, 1, 1, 1, 2},
-            {1, 2, 1, 2, 1},
-            {2, 1, 2, 1, 2}
-    	};
-		int[][] basePattern = {
-            {0, 0, 0, 0, 0},
-            {0, 0, 0, 0, 0},
-            {0, 0, 0, 0, 0},
-            {0, 0, 0, 0, 0},
-            {0, 0, 0, 0, 0}
-    	};
-
-        switch (patternType) {
-            case 1 -> basePattern = moneyTowerPattern;
-            case 2 -> basePattern = paintTowerPattern;
-            case 3 -> basePattern = defenseTowerPattern;
-            case 4 -> basePattern = SRPPattern;
-            default -> {
-            }
-        }
-		
-		MapLocation topLeft = center.translate(-2, 2);
-
-		// Iterate through the pattern
-		for (int dy = 0; dy < 5; dy++) {
-			for (int dx = 0; dx < 5; dx++) {
-				// Skip if no paint needed (0 in pattern)
-				if (basePattern[dy][dx] == 0) continue;
-				
-				// Calculate target location
-				MapLocation target = topLeft.translate(dx, -dy);
-
-				if (!rc.canSenseLocation(target)) {
-					moveTo(rc,target);
-				} else {
-					// Get current paint at location
-					MapInfo info = rc.senseMapInfo(target);
-					PaintType currentPaint = info.getPaint();
-					PaintType desiredPaint = (basePattern[dy][dx] == 2) ? 
-						PaintType.ALLY_SECONDARY : PaintType.ALLY_PRIMARY;
-					
-					if (rc.getType() == UnitType.SOLDIER) {
-						// If paint doesn't match and we can attack this location
-						if (currentPaint != desiredPaint && currentPaint != PaintType.ENEMY_PRIMARY && currentPaint != PaintType.ENEMY_SECONDARY) {
-							rc.setIndicatorDot(target, 1, 1, 1);
-							// Check if we can paint this location
-							if (!rc.canAttack(target)) {
-								if(!moveNear(rc,target)){continue;}
-								rc.setIndicatorLine(target, rc.getLocation(), dx, dx, dx);
-							}
-					
-							// Use secondary paint if pattern value is 2, otherwise primary
-							if (rc.canAttack(target)) {rc.attack(target, basePattern[dy][dx] == 2);}
-						}
-					} else  {
-						// If paint doesn't match and we can attack this location
-						if (currentPaint != desiredPaint && !currentPaint.isAlly() && currentPaint != PaintType.EMPTY) {
-							rc.setIndicatorDot(target, 1, 1, 1);
-							// Check if we can paint this location
-							if (!rc.canAttack(target)) {
-								if(!moveNear(rc,target)){continue;}
-								rc.setIndicatorLine(target, rc.getLocation(), dx, dx, dx);
-							}
-							// Use secondary paint if pattern value is 2, otherwise primary
-							if (rc.canAttack(target)) {rc.attack(target, basePattern[dy][dx] == 2);}
-						}
-					}
-				}
+		int round = rc.getRoundNum();
+		int packed = packLoc(center);
+		int secondary = patternSecondary[patternType];
+		int enemyPaint = boardWindow(paintLo[ENEMY_PRIMARY] | paintLo[ENEMY_SECONDARY], paintHi[ENEMY_PRIMARY] | paintHi[ENEMY_SECONDARY],
+				center.x - boardOrigin.x, center.y - boardOrigin.y) & PATTERN_PAINT[patternType];
+
+		// A soldier can't paint over enemy paint, and nobody finishes a pattern under an enemy tower. Drop the job
+		// and leave this one alone for a while.
+		boolean abort = enemyPaint != 0 && rc.getType() == UnitType.SOLDIER;
+		for (RobotInfo aBot : sensedRobots) {
+			if (aBot.team != rc.getTeam() && aBot.type.isTowerType() && aBot.location.distanceSquaredTo(center) <= aBot.type.actionRadiusSquared) {abort = true;}
+		}
+		if (abort) {
+			rc.setIndicatorString("Giving up on " + center);
+			if (enemyPaint != 0) {queueUrgent((MSG_CLEANUP << 28) | (patternType << 12) | packed);}
+			jobCenter = -1;
+			avoidRuin(packed, round + 20);
+			return;
+		}
+
+		// Carry on with the job from last turn if it's this one. Only the tiles that were still wrong, and any the
+		// vision boards show in enemy paint or our wrong color, can have changed since. Past that, a tile only gets
+		// rechecked once it's gone JOB_RECHECK rounds without one.
+		int check = PATTERN_PAINT[patternType];
+		if (jobCenter != packed || jobType != patternType) {
+			jobCenter = packed;
+			jobType = patternType;
+		} else {
+			int dx = center.x - boardOrigin.x;
+			int dy = center.y - boardOrigin.y;
+			int wrongColor = (boardWindow(paintLo[PRIMARY], paintHi[PRIMARY], dx, dy) & patternSecondary[patternType])
+					| (boardWindow(paintLo[SECONDARY], paintHi[SECONDARY], dx, dy) & ~patternSecondary[patternType]);
+			int stale = 0;
+			for (int todo = check & ~jobMask; todo != 0; todo &= todo - 1) {
+				int bit = Integer.numberOfTrailingZeros(todo);
+				if (round - jobVerified[bit] >= JOB_RECHECK) {stale |= 1 << bit;}
 			}
+			check &= jobMask | enemyPaint | wrongColor | stale;
 		}
-		moveNear(rc, center);
-		Boolean canComplete = false;
-		switch (patternType) {
-            case 1 -> canComplete = rc.canCompleteTowerPattern(UnitType.LEVEL_ONE_MONEY_TOWER, center);
-            case 2 -> canComplete = rc.canCompleteTowerPattern(UnitType.LEVEL_ONE_PAINT_TOWER, center);
-            case 3 -> canComplete = rc.canCompleteTowerPattern(UnitType.LEVEL_ONE_DEFENSE_TOWER, center);
-            case 4 -> canComplete = rc.canCompleteResourcePattern(center);
-            default -> {
-            }
-        }
-		if (canComplete) {
-			switch (patternType) {
-				case 1 -> rc.completeTowerPattern(UnitType.LEVEL_ONE_MONEY_TOWER, center);
-				case 2 -> rc.completeTowerPattern(UnitType.LEVEL_ONE_PAINT_TOWER, center);
-				case 3 -> rc.completeTowerPattern(UnitType.LEVEL_ONE_DEFENSE_TOWER, center);
-				case 4 -> rc.completeResourcePattern(center);
-				default -> {
-				}
+		jobMask = patternMismatch(rc, center, check, patternType);
+		for (int todo = check & ~jobMask; todo != 0; todo &= todo - 1) {
+			jobVerified[Integer.numberOfTrailingZeros(todo)] = round;
+		}
+		int mismatch = jobMask;
+
+		// Work our own share of the footprint, and help with the rest once it's done
+		int work = mismatch;
+		if (rc.getType() == UnitType.SOLDIER) {
+			int share = mismatch & builderShare(rc, center);
+			if (share != 0) {work = share;}
+		}
+
+		// Paint the closest wrong tile in reach, then take the one step that puts the most of what's left in attack
+		// range. If no step reaches any of it, head for the middle of what's left. Paint again if we haven't yet.
+		int painted = paintClosest(rc, center, work, secondary);
+		if (painted >= 0) {
+			mismatch &= ~(1 << painted);
+			work &= ~(1 << painted);
+		}
+		Direction step = work != 0 && rc.isMovementReady() ? coverStep(rc, center, work) : null;
+		if (step != null) {
+			rc.move(step);
+			if (painted < 0) {
+				painted = paintClosest(rc, center, work, secondary);
+				if (painted >= 0) {mismatch &= ~(1 << painted);}
 			}
+		} else if (painted < 0 && work != 0 && rc.isMovementReady()) {
+			int count = Integer.bitCount(work);
+			int sumX = 0;
+			int sumY = 0;
+			for (int todo = work; todo != 0; todo &= todo - 1) {
+				int bit = Integer.numberOfTrailingZeros(todo);
+				sumX += bit % 5 - 2;
+				sumY += bit / 5 - 2;
+			}
+			MapLocation centroid = center.translate(Math.round((float) sumX / count), Math.round((float) sumY / count));
+			rc.setIndicatorLine(rc.getLocation(), centroid, 255, 255, 255);
+			moveNear(rc, centroid);
+			painted = paintClosest(rc, center, work, secondary);
+			if (painted >= 0) {mismatch &= ~(1 << painted);}
+		}
+		jobMask = mismatch;
+		if (patternType != 4 && rc.getType() == UnitType.SOLDIER && round - lastProgressRound >= 10) {
+			lastProgressRound = round;
+			int builders = Math.min(7, ruinBuilders(rc, center, false) + 1);
+			queueUrgent((MSG_PROGRESS << 28) | (((round >> 2) & 31) << 23) | (patternType << 20) | (builders << 17) | (Integer.bitCount(mismatch) << 12) | packed);
+		}
+		// Completion can't succeed while anything is still wrong, so don't ask until it's all painted
+		if (mismatch != 0) {return;}
+		moveNear(rc, center);
+		if (patternType == 4) {
+			if (!rc.canCompleteResourcePattern(center)) {return;}
+			memoStamp++;
+			jobCenter = -1;
+			rc.completeResourcePattern(center);
+		} else {
+			UnitType towerType = PATTERN_TOWERS[patternType];
+			if (!rc.canCompleteTowerPattern(towerType, center)) {return;}
+			memoStamp++;
+			jobCenter = -1;
+			rc.completeTowerPattern(towerType, center);
 		}
     }
     /**
@@ -279,8 +677,6 @@ public class RobotPlayer {
      */
     public static void runTower(RobotController rc) throws GameActionException{
 		//Information
-		RobotInfo[] nearbyRobots = rc.senseNearbyRobots(-1);
-		int lowestHealth = 300;
 		int roundCount = rc.getRoundNum();
 		//Random Direction
 		for (Direction dir : shuffleArray(directions,rng)) {
@@ -298,11 +694,21 @@ public class RobotPlayer {
 			}
 		}
 
+		// Focus the weakest enemy that will still be in range once we can shoot again
+		MapLocation target = towerTarget(rc);
+		if (target != null && rc.canAttack(target)) {
+			rc.setIndicatorString("Targeting " + target);
+			rc.attack(target);
+		}
+		if (rc.canAttack(null)) {rc.attack(null);}
+
 		if(rc.getPaint() > 300 && rc.getChips() > 1250){
 			for (Direction dirs : directions) {
 				MapLocation adjSpace = rc.adjacentLocation(dirs);
 				if (rc.canRemoveMark(adjSpace)) {
 					rc.removeMark(adjSpace);
+					forgetInfo(adjSpace);
+					noteMark(adjSpace.x, adjSpace.y, PaintType.EMPTY.ordinal());
 				}				
 			}
 			if (rc.getMoney() < rc.getRoundNum() * 2) {
@@ -323,22 +729,10 @@ public class RobotPlayer {
 						}
 					}
 				}
-			if (nearbyRobots.length > 0){
-				spawning(rc); //Hi Amelie-- remove this line. Right now, however, you will never spawn robots if it senses any low health robot. 
-				for (RobotInfo emBot: nearbyRobots) {
-					if ((rc.getTeam() != emBot.team) && emBot.health <= lowestHealth) {
-						lowestHealth = emBot.health;
-					}
-						if (rc.canAttack(emBot.location) && emBot.health <= lowestHealth) {
-							rc.setIndicatorString("Robot with Lowest Health:  " + emBot.location);
-							rc.attack(emBot.location);
-							rc.attack(null);
-						}		
-					}
-				}
 			spawning(rc);
 		}
-		
+		dispatchCleanups(rc);
+		shareKnowledge(rc);
 	}
 
 	
@@ -351,7 +745,7 @@ public class RobotPlayer {
 
 		// Sense and label nearby robots
 		//rc.setIndicatorString("Scanning");
-        RobotInfo[] nearbyRobots = rc.senseNearbyRobots(-1);
+        RobotInfo[] nearbyRobots = sensedRobots;
 		RobotInfo nearestTower = null;
         int nTowerDist = 9999;
         RobotInfo nearestMopper = null;
@@ -384,26 +778,35 @@ public class RobotPlayer {
         }
 
 		
-		MapLocation[] nearbyRuins = rc.senseNearbyRuins(-1);
-		MapLocation nearestRuin = null;
-		int nRuinDist = 9999;
+		MapLocation[] nearbyRuins = senseRuins(rc);
 
+		// Leave the free ruins in sight that already have enough builders
 		for (MapLocation aLoc : nearbyRuins) {
-			int ruinDist = here.distanceSquaredTo(aLoc);
-			if (rc.senseRobotAtLocation(aLoc) == null && ruinDist < nRuinDist) {
-				nearestRuin = aLoc;
-				nRuinDist = ruinDist;
+			if (rc.senseRobotAtLocation(aLoc) == null) {
+				forgetTower(aLoc);
+				if (ruinBuilders(rc, aLoc, true) >= CROWDED_RUIN) {
+					avoidRuin(packLoc(aLoc), rc.getRoundNum() + 20);
+				}
 			}
 		}
+		// Build the ruin we're committed to if it's in sight, otherwise walk over to it further down
+		MapLocation targetRuin = chooseRuin(rc);
+		MapLocation nearestRuin = targetRuin != null && here.distanceSquaredTo(targetRuin) <= 20 ? targetRuin : null;
 		
+		if (nearestTower != null) {reportToTower(rc, nearestTower.location);}
+
 		// If not enough paint to safely attack/paint, go refill
-		if (rc.getPaint() < 105 && nearestTower != null) {
+		MapLocation knownPaintTower = nearestTower == null ? nearestKnownTower(rc, true, true) : null;
+		if (rc.getPaint() < soldierRefillPaint && nearestTower != null) {
 			rc.setIndicatorString("Getting paint");
             refill(rc,nearestTower.location);
-        } else if (rc.getPaint() < 105 && nearestMopper != null) {
+        } else if (rc.getPaint() < soldierRefillPaint && nearestMopper != null) {
 			rc.setIndicatorString("Following mopper");
             moveTo(rc,nearestMopper.location);
-        }
+        } else if (rc.getPaint() < soldierRefillPaint && knownPaintTower != null) {
+			rc.setIndicatorString("Heading to known paint tower");
+			moveTo(rc, knownPaintTower);
+		}
 
 		// If see enemy tower, attack
 		// TODO: Shoot and scoot, scoot and shoot
@@ -411,15 +814,43 @@ public class RobotPlayer {
 			rc.setIndicatorString("Attack!");
 			if (rc.canAttack(nearestEnemyTower.location)) {
 				rc.attack(nearestEnemyTower.location);
+				damageTower(nearestEnemyTower.location, rc.getType().attackStrength);
 			} else {
 				moveTo(rc, nearestEnemyTower.location);
 			}
+		} else if (nearestRuin == null && rc.getPaint() > 150 && rc.getRoundNum() >= 100) {
+			// Nothing to build here, go after an enemy tower someone has reported recently
+			MapLocation knownEnemyTower = nearestKnownTower(rc, false, false);
+			MapLocation baseGuess = enemyBaseGuess();
+			if (knownEnemyTower != null) {
+				rc.setIndicatorString("Hunting " + knownEnemyTower);
+				moveTo(rc, knownEnemyTower);
+			} else if (baseGuess != null) {
+				// Nobody has seen an enemy tower, try the mirror of our spawn and drop the symmetry if it's empty
+				if (here.distanceSquaredTo(baseGuess) <= 9) {
+					symmetries &= ~Integer.lowestOneBit(symmetries);
+				} else {
+					rc.setIndicatorString("Hunting base at " + baseGuess);
+					moveTo(rc, baseGuess);
+				}
+			}
 		}
 
-		buildRuins(rc, nearestRuin, enemies);
+		// Nothing to build in sight, but a tower or teammate has told us about a free ruin
+		if (nearestRuin == null && targetRuin != null && rc.getPaint() >= soldierRefillPaint) {
+			rc.setIndicatorString("Heading for ruin " + targetRuin);
+			moveTo(rc, targetRuin);
+		}
 
-		MapLocation mapCenter = new MapLocation(rc.getMapWidth()/2, rc.getMapHeight()/2);
-		if (rc.getRoundNum() < 100 && nearestRuin == null) {
+		// Late in a close game a new tower won't pay for itself, so just paint
+		if (rc.getRoundNum() > ENDGAME_ROUND && allyCoverage() <= enemyCoverage() + 5) {
+			rc.setIndicatorString("Endgame painting");
+			paintNearest(rc);
+		} else {
+			buildRuins(rc, nearestRuin, enemies);
+		}
+
+		if (rc.getRoundNum() < rushRounds && nearestRuin == null) {
 			moveTo(rc, mapCenter);
 		}
         
@@ -431,6 +862,13 @@ public class RobotPlayer {
 			}
 		}
 
+		// Step out of the way of a mopper that's heading for us before it can swing
+		MapLocation threat = interceptThreat(rc, rc.getLocation());
+		if (threat != null) {
+			rc.setIndicatorString("Dodging mopper at " + threat);
+			flee(rc, threat);
+		}
+
 		// if (countAlllies > (rc.getRoundNum() / 400) - 1) {
 		// 	if (rc.isMovementReady() && distantAlly != null) {
 		// 		rc.setIndicatorString("Disperse");
@@ -439,6 +877,8 @@ public class RobotPlayer {
 		// } else {
 		// 	rc.setIndicatorString("Wait for Reinforcments " + ((rc.getRoundNum() / 400) - 1));
 		// }
+		// Head for the nearest stretch of map we haven't seen yet, wander if there's none
+		explore(rc);
 		// Move and attack randomly if no objective.
         Direction dir = directions[rng.nextInt(directions.length)];
         MapLocation nextLoc = rc.getLocation().add(dir);
@@ -448,9 +888,10 @@ public class RobotPlayer {
         
         // Try to paint beneath us as we walk to avoid paint penalties.
         // Avoiding wasting paint by re-painting our own tiles.
-        MapInfo currentTile = rc.senseMapInfo(rc.getLocation());
+        MapInfo currentTile = senseInfo(rc, rc.getLocation());
         if (!currentTile.getPaint().isAlly() && rc.canAttack(rc.getLocation())){
             rc.attack(rc.getLocation());
+            forgetInfo(rc.getLocation());
         }
     }
 
@@ -467,46 +908,31 @@ public class RobotPlayer {
 		MapLocation here = rc.getLocation();
 		// Building on ruins
 		if (nearestRuin != null) {
-			boolean northMark = false;
-			boolean southMark = false;
-			boolean eastMark = false;
-			try {
-				northMark = rc.senseMapInfo(nearestRuin.add(Direction.NORTH)).getMark() == PaintType.ALLY_SECONDARY; //Defense
-				southMark = rc.senseMapInfo(nearestRuin.add(Direction.SOUTH)).getMark() == PaintType.ALLY_SECONDARY; //Paint
-				eastMark = rc.senseMapInfo(nearestRuin.add(Direction.EAST)).getMark() == PaintType.ALLY_SECONDARY; //Money
-			} catch (GameActionException e) {}
-			boolean anyMark = northMark || southMark || eastMark;
-
+			int plans = plannedPatterns(nearestRuin);
+			boolean anyMark = plans != 0;
 			if (anyMark) {rc.setIndicatorString("Building");}
-			if (northMark) {
-				paintPattern(rc, nearestRuin, 3);
-			}
-			if (southMark) {
-				paintPattern(rc, nearestRuin, 2);
-			}
-			if (eastMark) {
-				paintPattern(rc, nearestRuin, 1);
+			// Conflicting marks get worked on in turn, same as when they were read straight off the map
+			for (int type = 3; type >= 1; type--) {
+				if ((plans & (1 << type)) != 0) {paintPattern(rc, nearestRuin, type);}
 			}
 
 			if (!anyMark) {
 				rc.setIndicatorString("Marking");
 				try {
-					if (enemies) {
+					UnitType towerType = chooseTowerType(rc, enemies);
+					if (towerType == UnitType.LEVEL_ONE_DEFENSE_TOWER) {
 						if (here.distanceSquaredTo(nearestRuin.add(Direction.NORTH)) <= 2) {
-							rc.mark(nearestRuin.add(Direction.NORTH), true);
-							northMark = true;
+							placeMark(rc, nearestRuin.add(Direction.NORTH));
 							anyMark = true;
 						} else {moveTo(rc, nearestRuin.add(Direction.NORTH));}
-					} else if (rc.getMoney() < rc.getRoundNum()) {
+					} else if (towerType == UnitType.LEVEL_ONE_MONEY_TOWER) {
 						if (here.distanceSquaredTo(nearestRuin.add(Direction.EAST)) <= 2) {
-							rc.mark(nearestRuin.add(Direction.EAST), true);
-							eastMark = true;
+							placeMark(rc, nearestRuin.add(Direction.EAST));
 							anyMark = true;
 						} else {moveTo(rc, nearestRuin.add(Direction.EAST));}
 					} else {
 						if (here.distanceSquaredTo(nearestRuin.add(Direction.SOUTH)) <= 2) {
-							rc.mark(nearestRuin.add(Direction.SOUTH), true);
-							southMark = true;
+							placeMark(rc, nearestRuin.add(Direction.SOUTH));
 							anyMark = true;
 						} else {moveTo(rc, nearestRuin.add(Direction.SOUTH));}
 					}
@@ -514,33 +940,68 @@ public class RobotPlayer {
 			}
 		}
 
-		// Sense information about all visible nearby tiles.
-        MapInfo[] nearbyTiles = rc.senseNearbyMapInfos();
-		Boolean[] clear = new Boolean[69];
-		for (int i = 0; i < 69; i ++) {
-			MapInfo anInfo = nearbyTiles[i];
-			if (anInfo.getMark() == PaintType.ALLY_SECONDARY) {
-				if (!rc.canSenseLocation(anInfo.getMapLocation().add(Direction.WEST))) {
-					if (!moveTo(rc, anInfo.getMapLocation().add(Direction.WEST))) {break;}
-				} else if (rc.senseMapInfo(anInfo.getMapLocation().add(Direction.WEST)).getMark() == PaintType.ALLY_SECONDARY) {
-					rc.setIndicatorString("Building");
-					paintPattern(rc, anInfo.getMapLocation(), 4);
-				}
+		// Work on every pending SRP in vision, dropping the ones that have been completed since
+		for (int i = srpCount; --i >= 0;) {
+			MapLocation center = unpackLoc(pendingSrps[i]);
+			if (here.distanceSquaredTo(center) > 20 || !rc.canSenseLocation(center)) {continue;}
+			if (ruinAvoided(pendingSrps[i], rc.getRoundNum())) {continue;}
+			if (senseInfo(rc, center).isResourcePatternCenter()) {
+				pendingSrps[i] = pendingSrps[--srpCount];
+				continue;
 			}
-            clear[i] = !anInfo.hasRuin() && !anInfo.isWall() && anInfo.getMark() != PaintType.ALLY_SECONDARY && rc.onTheMap(anInfo.getMapLocation());
+			rc.setIndicatorString("Building");
+			paintPattern(rc, center, 4);
 		}
-		int btLf = 15;
-		if (clear[btLf] && clear[btLf+1] && clear[btLf+2] && clear[btLf+3] && clear[btLf+4] && clear[btLf+9] && clear[btLf+1+9] && clear[btLf+2+9] && clear[btLf+3+9] && clear[btLf+4+9] && clear[btLf+9+9] && clear[btLf+1+9+9] && clear[btLf+3+9+9] && clear[btLf+4+9+9] && clear[btLf+9+9+9] && clear[btLf+1+9+9+9] && clear[btLf+2+9+9+9] && clear[btLf+3+9+9+9] && clear[btLf+4+9+9+9] && clear[btLf+9+9+9+9] && clear[btLf+1+9+9+9+9] && clear[btLf+2+9+9+9+9] && clear[btLf+3+9+9+9+9] && clear[btLf+4+9+9+9+9]) {
-			if (rc.senseMapInfo(here).getMark() == PaintType.ALLY_SECONDARY) {
-				if (rc.canMark(here.add(Direction.WEST))) {
-					rc.mark(here.add(Direction.WEST), true);
-				}
-			} else {
-				if (rc.canMark(here)) {
-					rc.mark(here, true);
-				}
+
+		// Lay out a new SRP at the closest free lattice point, staying with the ruin if there is one
+		MapLocation srpCenter = nearestLatticeSrp(rc);
+		if (srpCenter == null) {return;}
+		here = rc.getLocation();
+		if (nearestRuin != null && here.distanceSquaredTo(srpCenter) > 2) {return;}
+		MapLocation markLoc = markAt(srpCenter.x, srpCenter.y) == SECONDARY ? srpCenter.add(Direction.WEST) : srpCenter;
+		if (rc.canMark(markLoc)) {
+			placeMark(rc, markLoc);
+		} else {
+			moveNear(rc, srpCenter);
+		}
+	}
+
+	// Closest lattice point in sight with room for an SRP that isn't built or laid out yet. Every unit works the
+	// same lattice, so patterns never overlap each other or a tower.
+	public static MapLocation nearestLatticeSrp(RobotController rc) throws GameActionException {
+		MapLocation here = rc.getLocation();
+		MapLocation best = null;
+		int bestDist = 21;
+		int round = rc.getRoundNum();
+		for (int x = here.x - 4 + ((latticeX + 4 - here.x) & 3); x <= here.x + 4; x += 4) {
+			if (x < 2 || x + 2 >= mapWidth) {continue;}
+			for (int y = here.y - 4 + ((latticeY + 4 - here.y) & 3); y <= here.y + 4; y += 4) {
+				if (y < 2 || y + 2 >= mapHeight || latticeBlocked[((x >> 2) << 4) | (y >> 2)]) {continue;}
+				int packed = (x << 6) | y;
+				if (ruinAvoided(packed, round)) {continue;}
+				if (markAt(x, y) == SECONDARY && markAt(x - 1, y) == SECONDARY) {continue;}
+				int aDist = here.distanceSquaredTo(new MapLocation(x, y));
+				if (aDist >= bestDist) {continue;}
+				if (!footprintClear(x, y)) {continue;}
+				MapLocation aLoc = new MapLocation(x, y);
+				if (rc.canSenseLocation(aLoc) && senseInfo(rc, aLoc).isResourcePatternCenter()) {continue;}
+				best = aLoc;
+				bestDist = aDist;
 			}
 		}
+		return best;
+	}
+
+	// Every tile of the footprint has been seen and is open ground a soldier can paint, so no unknown walls and no
+	// enemy paint to stall the pattern on
+	public static boolean footprintClear(int x, int y) {
+		for (int fx = x - 2; fx <= x + 2; fx++) {
+			for (int fy = y - 2; fy <= y + 2; fy++) {
+				int state = tileMemory[(fx << 6) | fy] & TILE_STATE;
+				if (state != TILE_EMPTY && state != TILE_ALLY) {return false;}
+			}
+		}
+		return true;
 	}
 
     /**
@@ -549,23 +1010,22 @@ public class RobotPlayer {
      */
     public static void runMopper(RobotController rc) throws GameActionException{
 		MapLocation here = rc.getLocation();
-		MapLocation[] nearbyRuins = rc.senseNearbyRuins(-1);
-		MapLocation nearestRuin = null;
-		int nRuinDist = 9999;
+		MapLocation[] nearbyRuins = senseRuins(rc);
 
 		for (MapLocation aLoc : nearbyRuins) {
-			int ruinDist = here.distanceSquaredTo(aLoc);
-			if (rc.senseRobotAtLocation(aLoc) == null && ruinDist < nRuinDist) {
-				nearestRuin = aLoc;
-				nRuinDist = ruinDist;
-			}
+			if (rc.senseRobotAtLocation(aLoc) == null) {forgetTower(aLoc);}
 		}
+		// Same scoring and commitment as the soldiers, but only a ruin in sight is worth working on
+		MapLocation targetRuin = chooseRuin(rc);
+		MapLocation nearestRuin = targetRuin != null && here.distanceSquaredTo(targetRuin) <= 20 ? targetRuin : null;
 		//Sense Enemies to Flee
 		//RobotInfo[] enemyRobots = rc.senseNearbyRobots(1000, rc.getTeam().opponent());
-		RobotInfo[] friendlyRobots = rc.senseNearbyRobots(-1,rc.getTeam());
-		RobotInfo[] enemyRobots = rc.senseNearbyRobots(-1,rc.getTeam().opponent());
+		RobotInfo[] friendlyRobots = rc.senseNearbyRobots(robotRadius,rc.getTeam());
+		RobotInfo[] enemyRobots = rc.senseNearbyRobots(robotRadius,rc.getTeam().opponent());
 		Boolean enemies = false;
 		if (enemyRobots.length > 0) {enemies = true;}
+		mopEnemies(rc);
+		runCleanup(rc);
 		buildRuins(rc, nearestRuin, enemies);
 		if (friendlyRobots.length > 0){
 			if (rc.getPaint() > 50){
@@ -595,10 +1055,11 @@ public class RobotPlayer {
 
 			}
 		}
-		MapLocation mapCenter = new MapLocation(rc.getMapWidth()/2, rc.getMapHeight()/2);
-		if (rc.getRoundNum() < 100 && nearestRuin == null) {
+		if (rc.getRoundNum() < rushRounds && nearestRuin == null) {
 			moveTo(rc, mapCenter);
 		}
+		// Head for the nearest stretch of map we haven't seen yet, wander if there's none
+		explore(rc);
 		// Move and attack randomly if no objective.
         Direction dir = directions[rng.nextInt(directions.length)];
         MapLocation nextLoc = rc.getLocation().add(dir);
@@ -613,7 +1074,7 @@ public class RobotPlayer {
 
 		// Sense and label nearby robots - copied from runSoldier in case we want to use it
 		//rc.setIndicatorString("Scanning");
-        RobotInfo[] nearbyRobots = rc.senseNearbyRobots(-1);
+        RobotInfo[] nearbyRobots = sensedRobots;
 		RobotInfo nearestTower = null;
         int nTowerDist = 9999;
         RobotInfo nearestMopper = null;
@@ -645,26 +1106,27 @@ public class RobotPlayer {
 			}
         }
 
-		MapLocation[] nearbyRuins = rc.senseNearbyRuins(-1);
-		MapLocation nearestRuin = null;
-		int nRuinDist = 9999;
+		MapLocation[] nearbyRuins = senseRuins(rc);
 
 		for (MapLocation aLoc : nearbyRuins) {
-			int ruinDist = here.distanceSquaredTo(aLoc);
-			if (rc.senseRobotAtLocation(aLoc) == null && ruinDist < nRuinDist) {
-				nearestRuin = aLoc;
-				nRuinDist = ruinDist;
-			}
+			if (rc.senseRobotAtLocation(aLoc) == null) {forgetTower(aLoc);}
 		}
+		// Same scoring and commitment as the soldiers, but only a ruin in sight is worth working on
+		MapLocation targetRuin = chooseRuin(rc);
+		MapLocation nearestRuin = targetRuin != null && here.distanceSquaredTo(targetRuin) <= 20 ? targetRuin : null;
 		
+		if (nearestTower != null) {reportToTower(rc, nearestTower.location);}
+
 		// If not enough paint to safely attack/paint, go refill
-		if (rc.getPaint() < 200 && nearestTower != null) {
+		if (rc.getPaint() < splasherRefillPaint && nearestTower != null) {
 			rc.setIndicatorString("Getting paint");
             refill(rc,nearestTower.location);
-        } else if (rc.getPaint() < 200 && nearestMopper != null) {
+        } else if (rc.getPaint() < splasherRefillPaint && nearestMopper != null) {
 			rc.setIndicatorString("Following mopper");
             moveTo(rc,nearestMopper.location);
-        }
+        } else if (rc.getPaint() < splasherRefillPaint) {
+			moveTo(rc, nearestKnownTower(rc, true, true));
+		}
         
         buildRuins(rc, nearestRuin, enemies);
 
@@ -684,6 +1146,8 @@ public class RobotPlayer {
 			}
 		}
 
+		// Head for the nearest stretch of map we haven't seen yet, wander if there's none
+		explore(rc);
 		// Move and attack randomly if no objective.
         Direction dir = directions[rng.nextInt(directions.length)];
         MapLocation nextLoc = rc.getLocation().add(dir);
@@ -692,17 +1156,14 @@ public class RobotPlayer {
         }
         // Avoiding wasting paint by not re-painting our own tiles.
 		// don't paint over own tiles, especially if secondary marker is nearby
-        boolean nearbySecondary = false;
-        MapInfo[] nearbyTiles = rc.senseNearbyMapInfos();
-		MapInfo currentTile = rc.senseMapInfo(rc.getLocation());
-        for (MapInfo anInfo : nearbyTiles) {
-            if (anInfo.getPaint().isAlly() && rc.canAttack(anInfo.getMapLocation())) {
-                nearbySecondary = true;
-            }
-        }
+		MapInfo currentTile = senseInfo(rc, rc.getLocation());
+		int allyNearby = boardWindow(paintLo[PRIMARY] | paintLo[SECONDARY], paintHi[PRIMARY] | paintHi[SECONDARY], rc.getLocation().x - boardOrigin.x, rc.getLocation().y - boardOrigin.y);
+        boolean nearbySecondary = rc.isActionReady() && (allyNearby & DISC_4) != 0;
         // if not ally paint or is empty tile, attack
 		if (!currentTile.getPaint().isAlly() && rc.canAttack(rc.getLocation()) && !nearbySecondary){
 			rc.attack(rc.getLocation());
+			// A splash repaints a whole area, drop the entire memo
+			memoStamp++;
 		}
         // if is ally paint or nearby more than 5 allies, flee or move away
         if (currentTile.getPaint().isAlly() || countAlllies > 5){
@@ -733,6 +1194,1025 @@ public class RobotPlayer {
         }
     }
 
+	public static int packLoc(MapLocation loc) {
+		return (loc.x << 6) | loc.y;
+	}
+
+	public static MapLocation unpackLoc(int packed) {
+		return new MapLocation(packed >> 6, packed & 63);
+	}
+
+	// Center of the closest super-cell we've seen less than half of, sticking with the last pick until it's explored
+	public static MapLocation nearestUnexplored(RobotController rc) {
+		if (exploreCell >= 0 && cellKnown[exploreCell] * 2 < cellSize[exploreCell]) {
+			return cellCenter(rc, exploreCell);
+		}
+		exploreCell = -1;
+		MapLocation here = rc.getLocation();
+		int bestDist = 99999;
+		for (int cell = 0; cell < 64; cell++) {
+			if (cellKnown[cell] * 2 >= cellSize[cell]) {continue;}
+			int cellDist = here.distanceSquaredTo(cellCenter(rc, cell));
+			if (cellDist < bestDist) {
+				exploreCell = cell;
+				bestDist = cellDist;
+			}
+		}
+		return exploreCell < 0 ? null : cellCenter(rc, exploreCell);
+	}
+
+	public static MapLocation cellCenter(RobotController rc, int cell) {
+		int x = Math.min(rc.getMapWidth() - 1, (cell >> 3) * 8 + 4);
+		int y = Math.min(rc.getMapHeight() - 1, (cell & 7) * 8 + 4);
+		return new MapLocation(x, y);
+	}
+
+	public static boolean explore(RobotController rc) throws GameActionException {
+		if (!rc.isMovementReady()) {return false;}
+		return moveTo(rc, nearestUnexplored(rc));
+	}
+
+	// Fills the map-sized tables a stage at a time. Stage 0 is needed before the first map ingestion so it always
+	// runs; the rest only run when allowed to, which is on spare bytecode at the end of a turn so the turn itself
+	// never gets starved. The long stages stop between rows and pick up again next call.
+	public static void initTables(RobotController rc, boolean allowed) throws GameActionException {
+		if (initStage == 0) {
+			mapWidth = rc.getMapWidth();
+			mapHeight = rc.getMapHeight();
+			mapCenter = new MapLocation(mapWidth / 2, mapHeight / 2);
+			spawnLoc = rc.getLocation();
+			// Whatever is left over past the last whole footprint is split between the two edges
+			latticeX = (2 + ((mapWidth - 5) & 3) / 2) & 3;
+			latticeY = (2 + ((mapHeight - 5) & 3) / 2) & 3;
+			loadPatterns(rc);
+			tileMemory = new int[4096];
+			infoMemo = new MapInfo[4096];
+			infoStamp = new int[4096];
+			wallRows = new long[64];
+			coverageCounts[TILE_UNKNOWN] = mapWidth * mapHeight;
+			for (int cx = 0; cx < 8; cx++) {
+				for (int cy = 0; cy < 8; cy++) {
+					cellSize[cx * 8 + cy] = Math.max(0, Math.min(8, mapWidth - cx * 8)) * Math.max(0, Math.min(8, mapHeight - cy * 8));
+				}
+			}
+			// A tower in the middle of the map can't tell the mirror from itself
+			if (mirrorLoc(spawnLoc, SYM_ROTATE).distanceSquaredTo(spawnLoc) <= 2) {symmetries &= ~SYM_ROTATE;}
+			if (Math.abs(mapWidth - 1 - 2 * spawnLoc.x) <= 1) {symmetries &= ~SYM_FLIP_X;}
+			if (Math.abs(mapHeight - 1 - 2 * spawnLoc.y) <= 1) {symmetries &= ~SYM_FLIP_Y;}
+			initStage = 1;
+		}
+		// An attackCover row runs about 4000 bytecodes, so leave room for a whole one
+		while (allowed && initStage < INIT_DONE && Clock.getBytecodesLeft() > 5000) {
+			if (initStage == 1) {
+				if (centerDist == null) {centerDist = new int[4096];}
+				int dx = initRow - mapCenter.x;
+				for (int y = mapHeight; --y >= 0;) {
+					int dy = y - mapCenter.y;
+					centerDist[(initRow << 6) | y] = dx * dx + dy * dy;
+				}
+				if (++initRow == mapWidth) {initRow = 0; initStage = 2;}
+			} else {
+				if (attackCover == null) {attackCover = new int[121];}
+				int radius = rc.getType().actionRadiusSquared;
+				int oy = initRow - 5;
+				for (int ox = -5; ox <= 5; ox++) {
+					int cover = 0;
+					for (int bit = 0; bit < 25; bit++) {
+						int dx = bit % 5 - 2 - ox;
+						int dy = bit / 5 - 2 - oy;
+						if (dx * dx + dy * dy <= radius) {cover |= 1 << bit;}
+					}
+					attackCover[initRow * 11 + ox + 5] = cover;
+				}
+				if (++initRow == 11) {initRow = 0; initStage = INIT_DONE;}
+			}
+		}
+	}
+
+	// Sensing governor. Picks this turn's sensing radii from how the last turns went, what the unit is doing
+	// and how stale memory is, so a turn of heavy pattern work doesn't also pay for a full vision scan.
+	// A tile radius of 0 skips the map info scan altogether.
+	public static void planSensing(RobotController rc) {
+		int round = rc.getRoundNum();
+		// A skipped round means last turn ran past the bytecode limit, go light for a few turns
+		if (lastTurnRound >= 0 && round - lastTurnRound > 1) {overrunTurns = 3;}
+		lastTurnRound = round;
+		int stale = round - lastFullScan;
+		boolean building = round - lastBuildRound <= 1;
+		// The turn hasn't spent anything yet, so judge by how close the last one came to the limit
+		boolean tight = overrunTurns > 0 || lastTurnLeft < 6000;
+		if (overrunTurns > 0) {overrunTurns--;}
+
+		if (rc.getType().isTowerType()) {
+			// Towers never move, their view only needs refreshing every few turns
+			tileRadius = stale >= 3 ? -1 : 0;
+		} else if (tight) {
+			tileRadius = stale >= 8 ? -1 : 8;
+		} else if (building && stale < 4) {
+			// The pattern tiles get sensed on demand through the memo anyway
+			tileRadius = 8;
+		} else {
+			tileRadius = -1;
+		}
+		if (tileRadius == -1) {lastFullScan = round;}
+		robotRadius = tight ? 9 : -1;
+		ruinsFromMemory = tight || building;
+	}
+
+	// Ruins never move, so when the governor says so we answer from the ruin list instead of asking the engine
+	public static MapLocation[] senseRuins(RobotController rc) throws GameActionException {
+		if (!ruinsFromMemory) {return rc.senseNearbyRuins(-1);}
+		MapLocation here = rc.getLocation();
+		MapLocation[] inRange = new MapLocation[ruinCount];
+		int n = 0;
+		for (int i = 0; i < ruinCount; i++) {
+			MapLocation aLoc = unpackLoc(knownRuins[i]);
+			if (here.distanceSquaredTo(aLoc) <= 20) {inRange[n++] = aLoc;}
+		}
+		MapLocation[] ruins = new MapLocation[n];
+		System.arraycopy(inRange, 0, ruins, 0, n);
+		return ruins;
+	}
+
+	// 9 bit row of a vision board, rows outside the box read as empty
+	public static int boardRow(long lo, long hi, int row) {
+		if (row < 0 || row > 8) {return 0;}
+		return (int) (row < 7 ? lo >>> (row * 9) : hi >>> ((row - 7) * 9)) & 0x1FF;
+	}
+
+	// 5x5 window of a vision board around boardOrigin.translate(dx, dy), bit (wy+2)*5 + (wx+2)
+	public static int boardWindow(long lo, long hi, int dx, int dy) {
+		int window = 0;
+		int shift = dx + 2;
+		for (int k = 0; k < 5; k++) {
+			int bits = boardRow(lo, hi, dy + 2 + k);
+			window |= ((shift >= 0 ? bits >>> shift : bits << -shift) & 31) << (5 * k);
+		}
+		return window;
+	}
+
+	// Memoized senseMapInfo, a hit costs an array lookup instead of an engine call
+	public static MapInfo senseInfo(RobotController rc, MapLocation loc) throws GameActionException {
+		if (loc.x < 0 || loc.y < 0 || loc.x > 63 || loc.y > 63) {return rc.senseMapInfo(loc);}
+		int idx = (loc.x << 6) | loc.y;
+		if (infoStamp[idx] == memoStamp) {return infoMemo[idx];}
+		MapInfo info = rc.senseMapInfo(loc);
+		infoMemo[idx] = info;
+		infoStamp[idx] = memoStamp;
+		return info;
+	}
+
+	// Call after painting or marking a tile ourselves so the next lookup sees the change
+	public static void forgetInfo(MapLocation loc) {
+		infoStamp[packLoc(loc)] = 0;
+	}
+
+	// Folds freshly sensed tiles into map memory, adjusting the coverage counts only for tiles that changed
+	public static void ingestTiles(RobotController rc, MapInfo[] tiles) {
+		MapLocation origin = rc.getLocation();
+		boardOrigin = origin;
+		for (int i = paintLo.length; --i >= 0;) {
+			paintLo[i] = 0; paintHi[i] = 0;
+		}
+		wallLo = 0; wallHi = 0; ruinLo = 0; ruinHi = 0; seenLo = 0; seenHi = 0;
+		for (MapInfo anInfo : tiles) {
+			MapLocation aLoc = anInfo.getMapLocation();
+			int idx = packLoc(aLoc);
+			infoMemo[idx] = anInfo;
+			infoStamp[idx] = memoStamp;
+			int bit = (aLoc.y - origin.y + 4) * 9 + aLoc.x - origin.x + 4;
+			if (bit < 63) {
+				long b = 1L << bit;
+				seenLo |= b;
+				paintLo[anInfo.getPaint().ordinal()] |= b;
+				if (anInfo.isWall()) {wallLo |= b;}
+				if (anInfo.hasRuin()) {ruinLo |= b;}
+			} else {
+				long b = 1L << (bit - 63);
+				seenHi |= b;
+				paintHi[anInfo.getPaint().ordinal()] |= b;
+				if (anInfo.isWall()) {wallHi |= b;}
+				if (anInfo.hasRuin()) {ruinHi |= b;}
+			}
+			int state;
+			if (anInfo.isWall() || anInfo.hasRuin()) {
+				state = TILE_BLOCKED;
+			} else if (anInfo.getPaint().isAlly()) {
+				state = TILE_ALLY;
+			} else if (anInfo.getPaint() == PaintType.EMPTY) {
+				state = TILE_EMPTY;
+			} else {
+				state = TILE_ENEMY;
+			}
+			int mark = anInfo.getMark().ordinal();
+			if (((tileMemory[idx] & TILE_MARK) >> TILE_MARK_SHIFT) != mark) {noteMark(aLoc.x, aLoc.y, mark);}
+			int oldState = tileMemory[idx] & TILE_STATE;
+			if (oldState != state) {
+				if (oldState == TILE_UNKNOWN) {
+					cellKnown[((aLoc.x >> 3) << 3) | (aLoc.y >> 3)]++;
+					if (state != TILE_BLOCKED && symmetries != 0) {pruneSymmetries(aLoc.x, aLoc.y);}
+				}
+				if (anInfo.isWall()) {
+					tileMemory[idx] |= TILE_WALL;
+					wallRows[aLoc.y] |= 1L << aLoc.x;
+				}
+				if (anInfo.hasRuin() && learnRuin(idx) && !rc.getType().isTowerType()) {queueMessage((MSG_RUIN << 28) | idx);}
+				coverageCounts[oldState]--;
+				coverageCounts[state]++;
+				tileMemory[idx] = (tileMemory[idx] & ~TILE_STATE) | state;
+			}
+		}
+	}
+
+	// Percent of the paintable tiles we've seen that carry our paint
+	public static int allyCoverage() {
+		int known = coverageCounts[TILE_EMPTY] + coverageCounts[TILE_ALLY] + coverageCounts[TILE_ENEMY];
+		return known == 0 ? 0 : coverageCounts[TILE_ALLY] * 100 / known;
+	}
+
+	public static int enemyCoverage() {
+		int known = coverageCounts[TILE_EMPTY] + coverageCounts[TILE_ALLY] + coverageCounts[TILE_ENEMY];
+		return known == 0 ? 0 : coverageCounts[TILE_ENEMY] * 100 / known;
+	}
+
+	public static boolean sendMessage(RobotController rc, MapLocation loc, int msg) throws GameActionException {
+		if (messagesLeft > 0 && rc.canSendMessage(loc, msg)) {
+			rc.sendMessage(loc, msg);
+			messagesLeft--;
+			return true;
+		}
+		return false;
+	}
+
+	// Newly found towers go out first, otherwise we send our coverage numbers
+	public static void reportToTower(RobotController rc, MapLocation towerLoc) throws GameActionException {
+		// Progress that sat in the queue too long would only mislead
+		while (outboxCount > 0 && outbox[0] >>> 28 == MSG_PROGRESS && progressAge(outbox[0], rc.getRoundNum()) > PROGRESS_TTL) {
+			outboxCount--;
+			System.arraycopy(outbox, 1, outbox, 0, outboxCount);
+		}
+		if (outboxCount > 0) {
+			if (sendMessage(rc, towerLoc, outbox[0])) {
+				outboxCount--;
+				System.arraycopy(outbox, 1, outbox, 0, outboxCount);
+			}
+		} else {
+			reportCoverage(rc, towerLoc);
+		}
+	}
+
+	public static void queueMessage(int msg) {
+		for (int i = 0; i < outboxCount; i++) {
+			if (outbox[i] == msg) {return;}
+		}
+		if (outboxCount < outbox.length) {outbox[outboxCount++] = msg;}
+	}
+
+	// Cleanup requests and build progress can't wait behind map knowledge, they jump the queue and push out the
+	// newest map item if full. A newer progress record replaces a queued one for the same ruin.
+	public static void queueUrgent(int msg) {
+		for (int i = 0; i < outboxCount; i++) {
+			if (outbox[i] == msg) {return;}
+			if (msg >>> 28 == MSG_PROGRESS && outbox[i] >>> 28 == MSG_PROGRESS && (outbox[i] & 4095) == (msg & 4095)) {
+				outbox[i] = msg;
+				return;
+			}
+		}
+		int urgent = 0;
+		while (urgent < outboxCount && (outbox[urgent] >>> 28 == MSG_CLEANUP || outbox[urgent] >>> 28 == MSG_PROGRESS)) {urgent++;}
+		if (urgent == outbox.length) {return;}
+		if (outboxCount == outbox.length) {outboxCount--;}
+		System.arraycopy(outbox, urgent, outbox, urgent + 1, outboxCount - urgent);
+		outbox[urgent] = msg;
+		outboxCount++;
+	}
+
+	// Lets the tower know what our corner of the map looks like, at most every 10 rounds
+	public static void reportCoverage(RobotController rc, MapLocation towerLoc) throws GameActionException {
+		if (rc.getRoundNum() - lastReportRound < 10) {return;}
+		int area = rc.getMapWidth() * rc.getMapHeight();
+		int knownPct = (area - coverageCounts[TILE_UNKNOWN]) * 100 / area;
+		// Bits 21-23 carry our profile plus one so towers built after the opening learn it
+		int msg = (MSG_COVERAGE << 28) | ((profile + 1) << 21) | (allyCoverage() << 14) | (enemyCoverage() << 7) | knownPct;
+		if (sendMessage(rc, towerLoc, msg)) {
+			lastReportRound = rc.getRoundNum();
+		}
+	}
+
+	// Messages are read one round late so that every message is handled exactly once
+	public static void readMessages(RobotController rc) throws GameActionException {
+		if (rc.getRoundNum() < 2) {return;}
+		for (Message aMsg : rc.readMessages(rc.getRoundNum() - 1)) {
+			int msg = aMsg.getBytes();
+			switch (msg >>> 28) {
+				case MSG_COVERAGE -> {
+					// Robots that have seen more of the map get a bigger say
+					int weight = Math.max(1, (msg & 127) / 10);
+					towerAllyCoverage = (towerAllyCoverage * 8 + ((msg >> 14) & 127) * weight) / (8 + weight);
+					towerEnemyCoverage = (towerEnemyCoverage * 8 + ((msg >> 7) & 127) * weight) / (8 + weight);
+					if (profile < 0 && ((msg >> 21) & 7) > 0) {applyProfile(rc, ((msg >> 21) & 7) - 1);}
+				}
+				case MSG_PROFILE -> {
+					if (!rc.getType().isTowerType()) {
+						applyProfile(rc, msg & 3);
+					} else if (profile < 0 || aMsg.getSenderID() < profileFrom) {
+						applyProfile(rc, msg & 3);
+						profileFrom = aMsg.getSenderID();
+					}
+				}
+				case MSG_TOWER -> recordTower(msg & 4095, unitTypes[(msg >> 23) & 15], ((msg >> 27) & 1) == 1, ((msg >> 12) & 31) * 100, ((msg >> 17) & 63) * 32);
+				case MSG_RUIN -> learnRuin(msg & 4095);
+				case MSG_WALLS -> learnWalls(rc, msg);
+				case MSG_PROGRESS -> recordProgress(msg, rc.getRoundNum());
+				case MSG_CLEANUP -> {
+					if (rc.getType().isTowerType()) {
+						recordCleanup(msg & ~CLEANUP_DISPATCHED, rc.getRoundNum(), (msg & CLEANUP_DISPATCHED) != 0);
+					} else if (rc.getType() == UnitType.MOPPER && (cleanupJob == 0 || rc.getRoundNum() > cleanupUntil)) {
+						// The tower counts us on the job we already have, so a second one waits for someone else
+						cleanupJob = msg;
+						cleanupUntil = rc.getRoundNum() + 50;
+					}
+				}
+				default -> {
+				}
+			}
+		}
+	}
+
+	// Towers keep one entry per stalled pattern, a repeat request just refreshes it. A dispatch broadcast from
+	// another tower counts against the pattern's mopper cap here too.
+	public static void recordCleanup(int msg, int round, boolean dispatched) {
+		int idx = -1;
+		for (int i = 0; i < cleanupCount; i++) {
+			if ((cleanupMsgs[i] & 4095) == (msg & 4095)) {idx = i;}
+		}
+		if (idx < 0) {
+			if (cleanupCount == MAX_CLEANUPS) {return;}
+			idx = cleanupCount++;
+			cleanupSent[idx] = 0;
+			cleanupMopper[idx] = -1;
+		}
+		cleanupMsgs[idx] = msg;
+		cleanupRounds[idx] = round;
+		if (dispatched) {cleanupSent[idx]++;}
+	}
+
+	// Sends each open cleanup to the closest mopper in range that isn't already on it, until it has enough moppers
+	public static void dispatchCleanups(RobotController rc) throws GameActionException {
+		int round = rc.getRoundNum();
+		for (int i = cleanupCount; --i >= 0;) {
+			if (round - cleanupRounds[i] > 60) {
+				cleanupCount--;
+				cleanupMsgs[i] = cleanupMsgs[cleanupCount];
+				cleanupRounds[i] = cleanupRounds[cleanupCount];
+				cleanupSent[i] = cleanupSent[cleanupCount];
+				cleanupMopper[i] = cleanupMopper[cleanupCount];
+				continue;
+			}
+			if (cleanupSent[i] >= CLEANUP_MOPPERS) {continue;}
+			MapLocation center = unpackLoc(cleanupMsgs[i] & 4095);
+			RobotInfo mopper = null;
+			int mopperDist = 99999;
+			for (RobotInfo aBot : sensedRobots) {
+				if (aBot.team != rc.getTeam() || aBot.type != UnitType.MOPPER || aBot.ID == cleanupMopper[i]) {continue;}
+				int aDist = aBot.location.distanceSquaredTo(center);
+				if (aDist < mopperDist) {
+					mopper = aBot;
+					mopperDist = aDist;
+				}
+			}
+			if (mopper != null && sendMessage(rc, mopper.location, cleanupMsgs[i])) {
+				cleanupSent[i]++;
+				cleanupMopper[i] = mopper.ID;
+				// Let the other towers know so the cap holds for the pattern, not per tower
+				if (rc.canBroadcastMessage()) {rc.broadcastMessage(cleanupMsgs[i] | CLEANUP_DISPATCHED);}
+			}
+		}
+	}
+
+	// Moppers sent on a cleanup go to the pattern and mop its enemy paint, paintPattern only picks those tiles for them
+	public static void runCleanup(RobotController rc) throws GameActionException {
+		if (cleanupJob == 0) {return;}
+		MapLocation center = unpackLoc(cleanupJob & 4095);
+		if (rc.getRoundNum() > cleanupUntil || (rc.canSenseLocation(center) && patternMismatch(rc, center, PATTERN_PAINT[(cleanupJob >> 12) & 7], (cleanupJob >> 12) & 7) == 0)) {
+			cleanupJob = 0;
+			return;
+		}
+		// Towers out of broadcast range may have sent more of us, the moppers with the lowest IDs keep the job
+		if (rc.canSenseLocation(center)) {
+			int seniors = 0;
+			for (RobotInfo aBot : sensedRobots) {
+				if (aBot.team == rc.getTeam() && aBot.type == UnitType.MOPPER && aBot.ID < rc.getID() && aBot.location.distanceSquaredTo(center) <= 8) {seniors++;}
+			}
+			if (seniors >= CLEANUP_MOPPERS) {
+				cleanupJob = 0;
+				return;
+			}
+		}
+		rc.setIndicatorString("Cleaning up " + center);
+		if (rc.getLocation().distanceSquaredTo(center) > 20) {
+			moveTo(rc, center);
+		} else {
+			paintPattern(rc, center, (cleanupJob >> 12) & 7);
+		}
+	}
+
+	// Rounds since a progress record was made, to the nearest 4 and good for 128 rounds
+	public static int progressAge(int msg, int round) {
+		return (((round >> 2) - ((msg >> 23) & 31)) & 31) * 4;
+	}
+
+	// Keeps the newest progress record per ruin, pushing out the oldest when full
+	public static void recordProgress(int msg, int round) {
+		if (progressAge(msg, round) > PROGRESS_TTL) {return;}
+		int idx = -1;
+		for (int i = 0; i < progressCount; i++) {
+			if ((progressMsgs[i] & 4095) == (msg & 4095)) {idx = i;}
+		}
+		if (idx < 0) {
+			if (progressCount < MAX_PROGRESS) {
+				idx = progressCount++;
+			} else {
+				idx = 0;
+				for (int i = 1; i < progressCount; i++) {
+					if (progressAge(progressMsgs[i], round) > progressAge(progressMsgs[idx], round)) {idx = i;}
+				}
+			}
+		} else if (progressAge(progressMsgs[idx], round) < progressAge(msg, round)) {
+			return;
+		}
+		progressMsgs[idx] = msg;
+	}
+
+	public static void expireProgress(int round) {
+		for (int i = progressCount; --i >= 0;) {
+			if (progressAge(progressMsgs[i], round) > PROGRESS_TTL) {
+				progressMsgs[i] = progressMsgs[--progressCount];
+			}
+		}
+	}
+
+	// Takes the slot already holding this ruin, else the one that runs out first
+	public static void avoidRuin(int packed, int until) {
+		int idx = 0;
+		for (int i = 0; i < MAX_AVOID; i++) {
+			if (avoidRuins[i] == packed) {idx = i; break;}
+			if (avoidUntil[i] < avoidUntil[idx]) {idx = i;}
+		}
+		avoidRuins[idx] = packed;
+		avoidUntil[idx] = until;
+	}
+
+	public static boolean ruinAvoided(int packed, int round) {
+		for (int i = 0; i < MAX_AVOID; i++) {
+			if (avoidRuins[i] == packed && round < avoidUntil[i]) {return true;}
+		}
+		return false;
+	}
+
+	// A ruin someone recently reported as nearly done or already fully staffed, not worth walking to
+	public static boolean ruinTaken(int packed, int round) {
+		for (int i = 0; i < progressCount; i++) {
+			if ((progressMsgs[i] & 4095) != packed || progressAge(progressMsgs[i], round) > PROGRESS_TTL) {continue;}
+			int left = (progressMsgs[i] >> 12) & 31;
+			int builders = (progressMsgs[i] >> 17) & 7;
+			return builders >= CROWDED_RUIN || left <= 4 * builders;
+		}
+		return false;
+	}
+
+	public static int findTower(int packed) {
+		for (int i = 0; i < towerCount; i++) {
+			if (towerLocs[i] == packed) {return i;}
+		}
+		return -1;
+	}
+
+	// Adds or refreshes a registry entry and returns its index. Older news never overwrites newer. Relayed
+	// entries only carry the round to 32, so rounds are compared at that precision.
+	public static int recordTower(int packed, UnitType type, boolean ally, int health, int seen) {
+		int idx = findTower(packed);
+		if (idx < 0) {
+			if (towerCount < MAX_TOWERS) {
+				idx = towerCount++;
+			} else {
+				idx = 0;
+				for (int i = 1; i < towerCount; i++) {
+					if (towerSeen[i] < towerSeen[idx]) {idx = i;}
+				}
+			}
+		} else if (towerSeen[idx] / 32 > seen / 32) {
+			return idx;
+		} else {
+			seen = Math.max(seen, towerSeen[idx]);
+		}
+		towerLocs[idx] = packed;
+		towerTypes[idx] = type;
+		towerAlly[idx] = ally;
+		towerHealth[idx] = health;
+		towerSeen[idx] = seen;
+		return idx;
+	}
+
+	public static void removeTower(int idx) {
+		towerCount--;
+		towerLocs[idx] = towerLocs[towerCount];
+		towerTypes[idx] = towerTypes[towerCount];
+		towerAlly[idx] = towerAlly[towerCount];
+		towerHealth[idx] = towerHealth[towerCount];
+		towerSeen[idx] = towerSeen[towerCount];
+	}
+
+	// An empty ruin means whatever tower we had on file there is gone
+	public static void forgetTower(MapLocation loc) {
+		int idx = findTower(packLoc(loc));
+		if (idx >= 0) {removeTower(idx);}
+	}
+
+	public static void damageTower(MapLocation loc, int damage) {
+		int idx = findTower(packLoc(loc));
+		if (idx >= 0) {
+			towerHealth[idx] -= damage;
+			if (towerHealth[idx] <= 0) {removeTower(idx);}
+		}
+	}
+
+	// Refreshes the registry from this turn's sensor snapshot, new or changed towers get reported to the next ally tower
+	public static void ingestRobots(RobotController rc, RobotInfo[] robots) {
+		int round = rc.getRoundNum();
+		for (RobotInfo aBot : robots) {
+			if (!aBot.type.isTowerType()) {continue;}
+			int packed = packLoc(aBot.location);
+			boolean ally = aBot.team == rc.getTeam();
+			int idx = findTower(packed);
+			boolean news = idx < 0 || towerTypes[idx] != aBot.type || towerAlly[idx] != ally;
+			idx = recordTower(packed, aBot.type, ally, aBot.health, round);
+			if (news && !rc.getType().isTowerType()) {queueMessage(encodeTower(idx));}
+		}
+	}
+
+	// Closest tower on file, enemy entries older than 200 rounds are not trusted
+	public static MapLocation nearestKnownTower(RobotController rc, boolean ally, boolean paintOnly) {
+		MapLocation here = rc.getLocation();
+		MapLocation best = null;
+		int bestDist = 99999;
+		for (int i = 0; i < towerCount; i++) {
+			if (towerAlly[i] != ally) {continue;}
+			if (paintOnly && towerTypes[i].getBaseType() != UnitType.LEVEL_ONE_PAINT_TOWER) {continue;}
+			if (!ally && rc.getRoundNum() - towerSeen[i] > 200) {continue;}
+			MapLocation aLoc = unpackLoc(towerLocs[i]);
+			if (here.distanceSquaredTo(aLoc) < bestDist) {
+				best = aLoc;
+				bestDist = here.distanceSquaredTo(aLoc);
+			}
+		}
+		return best;
+	}
+
+	public static int encodeTower(int idx) {
+		int seen = Math.min(63, towerSeen[idx] / 32);
+		int health = Math.min(31, (towerHealth[idx] + 99) / 100);
+		return (MSG_TOWER << 28) | ((towerAlly[idx] ? 1 : 0) << 27) | (towerTypes[idx].ordinal() << 23) | (seen << 17) | (health << 12) | towerLocs[idx];
+	}
+
+	// Everything a tower can pass on: the profile, build progress, tower entries, then ruins, then wall blocks
+	public static int knowledgeItem(int k) {
+		if (profile >= 0) {
+			if (k == 0) {return (MSG_PROFILE << 28) | profile;}
+			k--;
+		}
+		if (k < progressCount) {return progressMsgs[k];}
+		k -= progressCount;
+		if (k < towerCount) {return encodeTower(k);}
+		k -= towerCount;
+		if (k < ruinCount) {return (MSG_RUIN << 28) | knownRuins[k];}
+		return wallBlocks[k - ruinCount];
+	}
+
+	// Towers hand one item to each robot in range per turn, cycling through what they know. The robot
+	// we spawned last gets everything we can fit so it doesn't start out blind.
+	public static void shareKnowledge(RobotController rc) throws GameActionException {
+		int items = (profile >= 0 ? 1 : 0) + progressCount + towerCount + ruinCount + wallBlockCount;
+		if (items == 0) {return;}
+		for (RobotInfo aBot : sensedRobots) {
+			if (messagesLeft == 0) {break;}
+			if (aBot.team != rc.getTeam() || aBot.type.isTowerType()) {continue;}
+			if (aBot.ID == newbornId) {
+				for (int k = 0; k < items && messagesLeft > 1; k++) {
+					sendMessage(rc, aBot.location, knowledgeItem(k));
+				}
+				newbornId = -1;
+			} else {
+				shareIndex = (shareIndex + 1) % items;
+				sendMessage(rc, aBot.location, knowledgeItem(shareIndex));
+			}
+		}
+	}
+
+	public static boolean learnRuin(int packed) {
+		for (int i = 0; i < ruinCount; i++) {
+			if (knownRuins[i] == packed) {return false;}
+		}
+		if (ruinCount == MAX_RUINS) {return false;}
+		knownRuins[ruinCount++] = packed;
+		tileMemory[packed] |= TILE_RUIN;
+		// No SRP on the lattice may overlap the tower pattern around the ruin
+		int rx = packed >> 6;
+		int ry = packed & 63;
+		for (int x = Math.max(2, rx - 4); x <= rx + 4 && x < 64; x++) {
+			if ((x & 3) != latticeX) {continue;}
+			for (int y = Math.max(2, ry - 4); y <= ry + 4 && y < 64; y++) {
+				if ((y & 3) == latticeY) {latticeBlocked[((x >> 2) << 4) | (y >> 2)] = true;}
+			}
+		}
+		// Ruins come in mirrored pairs, a known open tile where the mirror should be rules that symmetry out
+		for (int sym = SYM_ROTATE; sym <= SYM_FLIP_Y; sym <<= 1) {
+			if ((symmetries & sym) == 0) {continue;}
+			int state = tileMemory[packLoc(mirrorLoc(unpackLoc(packed), sym))] & TILE_STATE;
+			if (state != TILE_UNKNOWN && state != TILE_BLOCKED) {symmetries &= ~sym;}
+		}
+		return true;
+	}
+
+	// The other half of learnRuin()'s check: a newly seen open tile rules out any symmetry that mirrors a known ruin onto it
+	public static void pruneSymmetries(int x, int y) {
+		for (int sym = SYM_ROTATE; sym <= SYM_FLIP_Y; sym <<= 1) {
+			if ((symmetries & sym) == 0) {continue;}
+			int mx = (sym & SYM_FLIP_Y) != 0 ? x : mapWidth - 1 - x;
+			int my = (sym & SYM_FLIP_X) != 0 ? y : mapHeight - 1 - y;
+			if ((tileMemory[(mx << 6) | my] & TILE_RUIN) != 0) {symmetries &= ~sym;}
+		}
+	}
+
+	public static MapLocation mirrorLoc(MapLocation loc, int sym) {
+		int x = (sym & SYM_FLIP_Y) != 0 ? loc.x : mapWidth - 1 - loc.x;
+		int y = (sym & SYM_FLIP_X) != 0 ? loc.y : mapHeight - 1 - loc.y;
+		return new MapLocation(x, y);
+	}
+
+	// Where the enemy's copy of our spawn would be under the first symmetry we haven't ruled out
+	public static MapLocation enemyBaseGuess() {
+		if (symmetries == 0) {return null;}
+		return mirrorLoc(spawnLoc, Integer.lowestOneBit(symmetries));
+	}
+
+	// Ruin scoring weights, see ruinCost()
+	static final int W_WALL = 3;
+	static final int W_ENEMY_TOWER = 40;
+	static final int W_ENEMY_UNIT = 5;
+	static final int W_SUPPLY = 4;
+	static final int W_FRONTIER = 6;
+	static final int RUIN_HYSTERESIS = 8;
+	static int committedRuin = -1;
+
+	// What building a ruin would cost us, lower is better. Starts from the ETA (in sight) or the walk plus the tiles
+	// memory says are unpainted (out of sight), then adds walls on the way, enemy towers and units near it and the
+	// walk from it to our closest paint tower, and takes a little off for ruins toward the middle of the map.
+	public static int ruinCost(RobotController rc, int packed) {
+		MapLocation here = rc.getLocation();
+		MapLocation ruin = unpackLoc(packed);
+		int round = rc.getRoundNum();
+		int dx = ruin.x - here.x;
+		int dy = ruin.y - here.y;
+		int steps = Math.max(Math.abs(dx), Math.abs(dy));
+		int cost;
+		if (here.distanceSquaredTo(ruin) <= 20) {
+			cost = ruinEta(rc, ruin);
+		} else {
+			int painted = 0;
+			for (int x = Math.max(0, ruin.x - 2); x <= ruin.x + 2 && x < mapWidth; x++) {
+				for (int y = Math.max(0, ruin.y - 2); y <= ruin.y + 2 && y < mapHeight; y++) {
+					if ((tileMemory[(x << 6) | y] & TILE_STATE) == TILE_ALLY) {painted++;}
+				}
+			}
+			cost = steps - 2 + 24 - painted;
+		}
+		// Path cost is approximated by the walls on the straight line there, a rough stand-in for the detour
+		for (int i = 1; i < steps && i < 16; i++) {
+			int x = here.x + dx * i / steps;
+			int y = here.y + dy * i / steps;
+			if (((wallRows[y] >>> x) & 1) != 0) {cost += W_WALL;}
+		}
+		int supply = 30;
+		for (int i = 0; i < towerCount; i++) {
+			MapLocation aLoc = unpackLoc(towerLocs[i]);
+			if (towerAlly[i]) {
+				if (towerTypes[i].getBaseType() == UnitType.LEVEL_ONE_PAINT_TOWER) {supply = Math.min(supply, Math.max(Math.abs(aLoc.x - ruin.x), Math.abs(aLoc.y - ruin.y)));}
+			} else if (round - towerSeen[i] <= 200 && aLoc.distanceSquaredTo(ruin) <= 36) {
+				cost += W_ENEMY_TOWER;
+			}
+		}
+		cost += supply / W_SUPPLY;
+		for (int i = 0; i < trackedCount; i++) {
+			if (round - trackedSeen[i] <= 10 && unpackLoc(trackedLocs[i]).distanceSquaredTo(ruin) <= 20) {cost += W_ENEMY_UNIT;}
+		}
+		if (initStage > 1 && centerDist[packed] < centerDist[packLoc(here)]) {cost -= W_FRONTIER;}
+		return cost;
+	}
+
+	// Scores every free ruin we know of within reach and returns the one to build. We stay committed to the last
+	// pick unless another one beats it by RUIN_HYSTERESIS, so builders don't flip between two close calls.
+	public static MapLocation chooseRuin(RobotController rc) throws GameActionException {
+		int round = rc.getRoundNum();
+		// The committed ruin is scored first so a tight turn can't cut it out of the comparison
+		int committedCost = committedRuin >= 0 && ruinOpen(rc, committedRuin, round) ? ruinCost(rc, committedRuin) : -1;
+		int best = -1;
+		int bestCost = 99999;
+		for (int i = 0; i < ruinCount && Clock.getBytecodesLeft() > 2000; i++) {
+			int packed = knownRuins[i];
+			if (packed == committedRuin || !ruinOpen(rc, packed, round)) {continue;}
+			int cost = ruinCost(rc, packed);
+			if (cost < bestCost) {
+				best = packed;
+				bestCost = cost;
+			}
+		}
+		if (committedCost >= 0 && (best < 0 || bestCost + RUIN_HYSTERESIS >= committedCost)) {
+			best = committedRuin;
+		}
+		committedRuin = best;
+		return best < 0 ? null : unpackLoc(best);
+	}
+
+	// A ruin within reach that's still worth scoring: no tower on it, not backed off from, and not reported taken
+	public static boolean ruinOpen(RobotController rc, int packed, int round) throws GameActionException {
+		if (findTower(packed) >= 0) {return false;}
+		if (ruinAvoided(packed, round)) {return false;}
+		MapLocation aLoc = unpackLoc(packed);
+		int aDist = rc.getLocation().distanceSquaredTo(aLoc);
+		if (aDist > 900) {return false;}
+		return aDist <= 20 ? !rc.canSenseLocation(aLoc) || rc.senseRobotAtLocation(aLoc) == null : !ruinTaken(packed, round);
+	}
+
+	// Allied soldiers working the footprint of a ruin, not counting us. With seniorOnly, just the ones with a
+	// lower ID, so everyone agrees on who backs off.
+	public static int ruinBuilders(RobotController rc, MapLocation ruin, boolean seniorOnly) {
+		int builders = 0;
+		for (RobotInfo aBot : sensedRobots) {
+			if (aBot.team != rc.getTeam() || aBot.type != UnitType.SOLDIER || aBot.ID == rc.getID()) {continue;}
+			if (seniorOnly && aBot.ID > rc.getID()) {continue;}
+			if (aBot.location.distanceSquaredTo(ruin) <= 8) {builders++;}
+		}
+		return builders;
+	}
+
+	// Footprint tiles around a ruin that don't carry our paint yet. Tiles out of sight count as unpainted.
+	public static int ruinRemaining(MapLocation ruin) {
+		int dx = ruin.x - boardOrigin.x;
+		int dy = ruin.y - boardOrigin.y;
+		int painted = boardWindow(paintLo[PRIMARY], paintHi[PRIMARY], dx, dy) | boardWindow(paintLo[SECONDARY], paintHi[SECONDARY], dx, dy);
+		return 24 - Integer.bitCount(painted & ~(1 << 12));
+	}
+
+	// Rounds until a ruin would be done if we joined in: walking over, then splitting what's left with the
+	// soldiers already there. Each of those adds a little, a ruin someone is already on gets built without us.
+	public static int ruinEta(RobotController rc, MapLocation ruin) {
+		MapLocation here = rc.getLocation();
+		int walk = Math.max(0, Math.max(Math.abs(ruin.x - here.x), Math.abs(ruin.y - here.y)) - 2);
+		int builders = ruinBuilders(rc, ruin, false);
+		return walk + (ruinRemaining(ruin) + builders) / (builders + 1) + 4 * builders;
+	}
+
+	public static int markAt(int x, int y) {
+		return (tileMemory[(x << 6) | y] & TILE_MARK) >> TILE_MARK_SHIFT;
+	}
+
+	// Records a tile's mark, keeping the pending SRP list in step. A secondary mark pair (a center and the
+	// tile just WEST of it) is how we lay out an SRP.
+	public static void noteMark(int x, int y, int mark) {
+		int idx = (x << 6) | y;
+		tileMemory[idx] = (tileMemory[idx] & ~TILE_MARK) | (mark << TILE_MARK_SHIFT);
+		if (mark == SECONDARY) {
+			if (x > 0 && markAt(x - 1, y) == SECONDARY) {addSrp(idx);}
+			if (x < 63 && markAt(x + 1, y) == SECONDARY) {addSrp(idx + 64);}
+		} else {
+			removeSrp(idx);
+			if (x < 63) {removeSrp(idx + 64);}
+		}
+	}
+
+	public static void addSrp(int packed) {
+		for (int i = 0; i < srpCount; i++) {
+			if (pendingSrps[i] == packed) {return;}
+		}
+		if (srpCount < MAX_SRPS) {pendingSrps[srpCount++] = packed;}
+	}
+
+	public static void removeSrp(int packed) {
+		for (int i = 0; i < srpCount; i++) {
+			if (pendingSrps[i] == packed) {
+				pendingSrps[i] = pendingSrps[--srpCount];
+				return;
+			}
+		}
+	}
+
+	// Tower types a ruin has been marked for, bit t set for paintPattern type t: a secondary mark NORTH of the
+	// ruin means defense, SOUTH paint and EAST money. 0 if nobody has picked yet.
+	public static int plannedPatterns(MapLocation ruin) {
+		int plans = 0;
+		if (ruin.y < 63 && markAt(ruin.x, ruin.y + 1) == SECONDARY) {plans |= 1 << 3;}
+		if (ruin.y > 0 && markAt(ruin.x, ruin.y - 1) == SECONDARY) {plans |= 1 << 2;}
+		if (ruin.x < 63 && markAt(ruin.x + 1, ruin.y) == SECONDARY) {plans |= 1 << 1;}
+		return plans;
+	}
+
+	public static void placeMark(RobotController rc, MapLocation loc) throws GameActionException {
+		rc.mark(loc, true);
+		forgetInfo(loc);
+		noteMark(loc.x, loc.y, SECONDARY);
+	}
+
+	// Updates a remembered tile that we learned about second hand, keeping the coverage counts straight
+	public static void setTileState(int x, int y, int state) {
+		int idx = (x << 6) | y;
+		int oldState = tileMemory[idx] & TILE_STATE;
+		if (oldState == state) {return;}
+		if (oldState == TILE_UNKNOWN) {cellKnown[((x >> 3) << 3) | (y >> 3)]++;}
+		coverageCounts[oldState]--;
+		coverageCounts[state]++;
+		tileMemory[idx] = (tileMemory[idx] & ~TILE_STATE) | state;
+	}
+
+	// MSG_WALLS carries a 4x4 block of the map (block x in bits 20-23, y in bits 16-19) with one bit per wall
+	public static void learnWalls(RobotController rc, int msg) {
+		int bx = ((msg >> 20) & 15) * 4;
+		int by = ((msg >> 16) & 15) * 4;
+		for (int k = 0; k < 16; k++) {
+			if (((msg >> k) & 1) == 0) {continue;}
+			int x = bx + (k & 3);
+			int y = by + (k >> 2);
+			if (x >= rc.getMapWidth() || y >= rc.getMapHeight()) {continue;}
+			setTileState(x, y, TILE_BLOCKED);
+			tileMemory[(x << 6) | y] |= TILE_WALL;
+			wallRows[y] |= 1L << x;
+		}
+		if (!rc.getType().isTowerType()) {return;}
+		int block = (msg >> 16) & 255;
+		for (int i = 0; i < wallBlockCount; i++) {
+			if (((wallBlocks[i] >> 16) & 255) == block) {
+				wallBlocks[i] |= msg;
+				return;
+			}
+		}
+		if (wallBlockCount < MAX_WALL_BLOCKS) {wallBlocks[wallBlockCount++] = msg;}
+	}
+
+	// A passable tile squeezed between walls on opposite sides is a chokepoint. Queue the wall layout of
+	// the 4x4 block around each new one we see so towers can pass it on.
+	public static void reportChokepoints(RobotController rc) {
+		for (int row = 1; row < 8; row++) {
+			int walls = boardRow(wallLo, wallHi, row);
+			int open = boardRow(seenLo, seenHi, row) & ~walls;
+			int chokes = open & (walls << 1) & (walls >> 1);
+			chokes |= open & boardRow(wallLo, wallHi, row - 1) & boardRow(wallLo, wallHi, row + 1);
+			while (chokes != 0) {
+				int col = Integer.numberOfTrailingZeros(chokes);
+				chokes &= chokes - 1;
+				MapLocation aLoc = boardOrigin.translate(col - 4, row - 4);
+				int block = ((aLoc.x >> 2) << 4) | (aLoc.y >> 2);
+				if (reportedBlocks[block]) {continue;}
+				reportedBlocks[block] = true;
+				int mask = 0;
+				int y0 = aLoc.y & ~3;
+				for (int r = 0; r < 4 && y0 + r < mapHeight; r++) {
+					mask |= (int) ((wallRows[y0 + r] >>> (aLoc.x & ~3)) & 15) << (r * 4);
+				}
+				queueMessage((MSG_WALLS << 28) | (block << 16) | mask);
+			}
+		}
+	}
+
+	public static int findTracked(int id) {
+		for (int i = 0; i < trackedCount; i++) {
+			if (trackedIds[i] == id) {return i;}
+		}
+		return -1;
+	}
+
+	// Correlates this turn's enemy sightings with earlier ones, evicting whoever we've gone longest without seeing
+	public static void trackEnemies(RobotController rc, RobotInfo[] robots) {
+		int round = rc.getRoundNum();
+		for (RobotInfo aBot : robots) {
+			if (aBot.team == rc.getTeam() || aBot.type.isTowerType()) {continue;}
+			int packed = packLoc(aBot.location);
+			int idx = findTracked(aBot.ID);
+			if (idx < 0) {
+				if (trackedCount < MAX_TRACKED) {
+					idx = trackedCount++;
+				} else {
+					idx = 0;
+					for (int i = 1; i < trackedCount; i++) {
+						if (trackedSeen[i] < trackedSeen[idx]) {idx = i;}
+					}
+				}
+				trackedIds[idx] = aBot.ID;
+				trackedPrevLocs[idx] = packed;
+				trackedPrevSeen[idx] = round;
+			} else if (trackedSeen[idx] != round) {
+				trackedPrevLocs[idx] = trackedLocs[idx];
+				trackedPrevSeen[idx] = trackedSeen[idx];
+			}
+			trackedTypes[idx] = aBot.type;
+			trackedLocs[idx] = packed;
+			trackedSeen[idx] = round;
+			trackedPaint[idx] = aBot.paintAmount;
+		}
+	}
+
+	// Where a tracked enemy should be after the given number of rounds, assuming it keeps its heading
+	public static MapLocation predictTracked(RobotController rc, int idx, int rounds) {
+		int x = trackedLocs[idx] >> 6;
+		int y = trackedLocs[idx] & 63;
+		int elapsed = trackedSeen[idx] - trackedPrevSeen[idx];
+		if (elapsed > 0 && elapsed <= 3) {
+			x += ((x - (trackedPrevLocs[idx] >> 6)) * rounds) / elapsed;
+			y += ((y - (trackedPrevLocs[idx] & 63)) * rounds) / elapsed;
+		}
+		x = Math.max(0, Math.min(rc.getMapWidth() - 1, x));
+		y = Math.max(0, Math.min(rc.getMapHeight() - 1, y));
+		return new MapLocation(x, y);
+	}
+
+	// A fresh enemy mopper that will be next to loc next round, if any
+	public static MapLocation interceptThreat(RobotController rc, MapLocation loc) {
+		int round = rc.getRoundNum();
+		for (int i = 0; i < trackedCount; i++) {
+			if (trackedTypes[i] != UnitType.MOPPER || round - trackedSeen[i] > 1 || trackedPaint[i] == 0) {continue;}
+			MapLocation next = predictTracked(rc, i, 1);
+			if (next.distanceSquaredTo(loc) <= 2) {return next;}
+		}
+		return null;
+	}
+
+	// Lowest health enemy in range, preferring ones that will still be in range when our attack is ready again
+	public static MapLocation towerTarget(RobotController rc) {
+		MapLocation here = rc.getLocation();
+		int range = rc.getType().actionRadiusSquared;
+		int cooldown = Math.max(1, rc.getType().actionCooldown / 10);
+		MapLocation best = null;
+		int bestScore = Integer.MAX_VALUE;
+		for (RobotInfo aBot : sensedRobots) {
+			if (aBot.team == rc.getTeam() || here.distanceSquaredTo(aBot.location) > range) {continue;}
+			int score = aBot.health;
+			int idx = findTracked(aBot.ID);
+			if (idx >= 0 && here.distanceSquaredTo(predictTracked(rc, idx, cooldown)) > range) {score += 1000;}
+			if (score < bestScore) {
+				best = aBot.location;
+				bestScore = score;
+			}
+		}
+		return best;
+	}
+
+	// Moppers swing at where enemies are headed, and walk to meet them when they're still out of reach
+	public static void mopEnemies(RobotController rc) throws GameActionException {
+		MapLocation here = rc.getLocation();
+		int round = rc.getRoundNum();
+		MapLocation meet = null;
+		int meetDist = 9999;
+		for (int i = 0; i < trackedCount; i++) {
+			if (round - trackedSeen[i] > 1) {continue;}
+			MapLocation now = unpackLoc(trackedLocs[i]);
+			MapLocation next = predictTracked(rc, i, 1);
+			if (here.distanceSquaredTo(now) <= 2) {
+				// Swings only go in cardinal directions
+				int dx = now.x - here.x;
+				int dy = now.y - here.y;
+				Direction swing = Math.abs(dx) >= Math.abs(dy) ? (dx > 0 ? Direction.EAST : Direction.WEST) : (dy > 0 ? Direction.NORTH : Direction.SOUTH);
+				if (rc.canMopSwing(swing)) {
+					rc.setIndicatorString("Swinging at " + now);
+					rc.mopSwing(swing);
+					return;
+				}
+			}
+			if (here.distanceSquaredTo(next) < meetDist) {
+				meet = next;
+				meetDist = here.distanceSquaredTo(next);
+			}
+		}
+		if (meet != null && rc.getPaint() > 30) {moveNear(rc, meet);}
+	}
+
+	// Paint the closest unpainted tile we can reach without moving
+	public static void paintNearest(RobotController rc) throws GameActionException {
+		if (!rc.isActionReady()) {return;}
+		MapLocation here = rc.getLocation();
+		MapLocation best = null;
+		int bestDist = 9999;
+		for (MapInfo anInfo : rc.senseNearbyMapInfos(rc.getType().actionRadiusSquared)) {
+			MapLocation aLoc = anInfo.getMapLocation();
+			if (anInfo.isPassable() && anInfo.getPaint() == PaintType.EMPTY && here.distanceSquaredTo(aLoc) < bestDist && rc.canAttack(aLoc)) {
+				best = aLoc;
+				bestDist = here.distanceSquaredTo(aLoc);
+			}
+		}
+		if (best != null) {
+			rc.attack(best);
+			forgetInfo(best);
+		}
+	}
+
     public static boolean moveTo(RobotController rc, MapLocation loc) throws GameActionException {
 		if (loc != null) {
 			return moveUnified(rc, loc, 3);
@@ -803,14 +2283,14 @@ public class RobotPlayer {
     	int useFakeSetPoint = 0;
     	MapLocation here = rc.getLocation();
     	
-    	if (rc.onTheMap(here.add(Direction.NORTH)) && rc.senseMapInfo(here.add(Direction.NORTH)).isWall()) {fakeSetPoint = fakeSetPoint.add(Direction.EAST); useFakeSetPoint += 1;}
-    	if (rc.onTheMap(here.add(Direction.NORTHEAST)) && rc.senseMapInfo(here.add(Direction.NORTHEAST)).isWall()) {fakeSetPoint = fakeSetPoint.add(Direction.SOUTHEAST); useFakeSetPoint += 1;}
-    	if (rc.onTheMap(here.add(Direction.EAST)) && rc.senseMapInfo(here.add(Direction.EAST)).isWall()) {fakeSetPoint = fakeSetPoint.add(Direction.SOUTH); useFakeSetPoint += 1;}
-    	if (rc.onTheMap(here.add(Direction.SOUTHEAST)) && rc.senseMapInfo(here.add(Direction.SOUTHEAST)).isWall()) {fakeSetPoint = fakeSetPoint.add(Direction.SOUTHWEST); useFakeSetPoint += 1;}
-    	if (rc.onTheMap(here.add(Direction.SOUTH)) && rc.senseMapInfo(here.add(Direction.SOUTH)).isWall()) {fakeSetPoint = fakeSetPoint.add(Direction.WEST); useFakeSetPoint += 1;}
-    	if (rc.onTheMap(here.add(Direction.SOUTHWEST)) && rc.senseMapInfo(here.add(Direction.SOUTHWEST)).isWall()) {fakeSetPoint = fakeSetPoint.add(Direction.NORTHWEST); useFakeSetPoint += 1;}
-    	if (rc.onTheMap(here.add(Direction.WEST)) && rc.senseMapInfo(here.add(Direction.WEST)).isWall()) {fakeSetPoint = fakeSetPoint.add(Direction.NORTH); useFakeSetPoint += 1;}
-    	if (rc.onTheMap(here.add(Direction.NORTHWEST)) && rc.senseMapInfo(here.add(Direction.NORTHWEST)).isWall()) {fakeSetPoint = fakeSetPoint.add(Direction.NORTHEAST); useFakeSetPoint += 1;}
+    	if (rc.onTheMap(here.add(Direction.NORTH)) && senseInfo(rc, here.add(Direction.NORTH)).isWall()) {fakeSetPoint = fakeSetPoint.add(Direction.EAST); useFakeSetPoint += 1;}
+    	if (rc.onTheMap(here.add(Direction.NORTHEAST)) && senseInfo(rc, here.add(Direction.NORTHEAST)).isWall()) {fakeSetPoint = fakeSetPoint.add(Direction.SOUTHEAST); useFakeSetPoint += 1;}
+    	if (rc.onTheMap(here.add(Direction.EAST)) && senseInfo(rc, here.add(Direction.EAST)).isWall()) {fakeSetPoint = fakeSetPoint.add(Direction.SOUTH); useFakeSetPoint += 1;}
+    	if (rc.onTheMap(here.add(Direction.SOUTHEAST)) && senseInfo(rc, here.add(Direction.SOUTHEAST)).isWall()) {fakeSetPoint = fakeSetPoint.add(Direction.SOUTHWEST); useFakeSetPoint += 1;}
+    	if (rc.onTheMap(here.add(Direction.SOUTH)) && senseInfo(rc, here.add(Direction.SOUTH)).isWall()) {fakeSetPoint = fakeSetPoint.add(Direction.WEST); useFakeSetPoint += 1;}
+    	if (rc.onTheMap(here.add(Direction.SOUTHWEST)) && senseInfo(rc, here.add(Direction.SOUTHWEST)).isWall()) {fakeSetPoint = fakeSetPoint.add(Direction.NORTHWEST); useFakeSetPoint += 1;}
+    	if (rc.onTheMap(here.add(Direction.WEST)) && senseInfo(rc, here.add(Direction.WEST)).isWall()) {fakeSetPoint = fakeSetPoint.add(Direction.NORTH); useFakeSetPoint += 1;}
+    	if (rc.onTheMap(here.add(Direction.NORTHWEST)) && senseInfo(rc, here.add(Direction.NORTHWEST)).isWall()) {fakeSetPoint = fakeSetPoint.add(Direction.NORTHEAST); useFakeSetPoint += 1;}
 
     	Direction goalDir = here.directionTo(loc);
     	Direction fakeSetPointDir = here.directionTo(fakeSetPoint);
@@ -1321,7 +2801,7 @@ public class RobotPlayer {
     	MapLocation lookTwo = rc.getLocation().add(Direction.NORTH).add(Direction.NORTH);
     	if (!rc.onTheMap(lookTwo)) {
     		return false;
-    	} else if (rc.senseMapInfo(lookTwo).isWall()) {
+    	} else if (senseInfo(rc, lookTwo).isWall()) {
     		return false;
     	}
 		if (canFill(rc, rc.getLocation().add(Direction.NORTH))) {fill(rc, rc.getLocation().add(Direction.NORTH));}
@@ -1349,7 +2829,7 @@ public class RobotPlayer {
     	MapLocation lookTwo = rc.getLocation().add(Direction.NORTH).add(Direction.NORTHEAST);
     	if (!rc.onTheMap(lookTwo)) {
     		return false;
-    	} else if (rc.senseMapInfo(lookTwo).isWall()) {
+    	} else if (senseInfo(rc, lookTwo).isWall()) {
     		return false;
     	}
     	if (canFill(rc, rc.getLocation().add(Direction.NORTH))) {fill(rc, rc.getLocation().add(Direction.NORTH));}
@@ -1373,7 +2853,7 @@ public class RobotPlayer {
     	MapLocation lookTwo = rc.getLocation().add(Direction.NORTHEAST).add(Direction.NORTHEAST);
     	if (!rc.onTheMap(lookTwo)) {
     		return false;
-    	} else if (rc.senseMapInfo(lookTwo).isWall()) {
+    	} else if (senseInfo(rc, lookTwo).isWall()) {
     		return false;
     	}
     	if (canFill(rc, rc.getLocation().add(Direction.NORTHEAST))) {fill(rc, rc.getLocation().add(Direction.NORTHEAST));}
@@ -1393,7 +2873,7 @@ public class RobotPlayer {
     	MapLocation lookTwo = rc.getLocation().add(Direction.EAST).add(Direction.NORTHEAST);
     	if (!rc.onTheMap(lookTwo)) {
     		return false;
-    	} else if (rc.senseMapInfo(lookTwo).isWall()) {
+    	} else if (senseInfo(rc, lookTwo).isWall()) {
     		return false;
     	}
     	if (canFill(rc, rc.getLocation().add(Direction.EAST))) {fill(rc, rc.getLocation().add(Direction.EAST));}
@@ -1417,7 +2897,7 @@ public class RobotPlayer {
     	MapLocation lookTwo = rc.getLocation().add(Direction.EAST).add(Direction.EAST);
     	if (!rc.onTheMap(lookTwo)) {
     		return false;
-    	} else if (rc.senseMapInfo(lookTwo).isWall()) {
+    	} else if (senseInfo(rc, lookTwo).isWall()) {
     		return false;
     	}
     	if (canFill(rc, rc.getLocation().add(Direction.EAST))) {fill(rc, rc.getLocation().add(Direction.EAST));}
@@ -1445,7 +2925,7 @@ public class RobotPlayer {
     	MapLocation lookTwo = rc.getLocation().add(Direction.EAST).add(Direction.SOUTHEAST);
     	if (!rc.onTheMap(lookTwo)) {
     		return false;
-    	} else if (rc.senseMapInfo(lookTwo).isWall()) {
+    	} else if (senseInfo(rc, lookTwo).isWall()) {
     		return false;
     	}
     	if (canFill(rc, rc.getLocation().add(Direction.EAST))) {fill(rc, rc.getLocation().add(Direction.EAST));}
@@ -1469,7 +2949,7 @@ public class RobotPlayer {
     	MapLocation lookTwo = rc.getLocation().add(Direction.SOUTHEAST).add(Direction.SOUTHEAST);
     	if (!rc.onTheMap(lookTwo)) {
     		return false;
-    	} else if (rc.senseMapInfo(lookTwo).isWall()) {
+    	} else if (senseInfo(rc, lookTwo).isWall()) {
     		return false;
     	}
     	if (canFill(rc, rc.getLocation().add(Direction.SOUTHEAST))) {fill(rc, rc.getLocation().add(Direction.SOUTHEAST));}
@@ -1489,7 +2969,7 @@ public class RobotPlayer {
     	MapLocation lookTwo = rc.getLocation().add(Direction.SOUTH).add(Direction.SOUTHEAST);
     	if (!rc.onTheMap(lookTwo)) {
     		return false;
-    	} else if (rc.senseMapInfo(lookTwo).isWall()) {
+    	} else if (senseInfo(rc, lookTwo).isWall()) {
     		return false;
     	}
     	if (canFill(rc, rc.getLocation().add(Direction.SOUTH))) {fill(rc, rc.getLocation().add(Direction.SOUTH));}
@@ -1513,7 +2993,7 @@ public class RobotPlayer {
     	MapLocation lookTwo = rc.getLocation().add(Direction.SOUTH).add(Direction.SOUTH);
     	if (!rc.onTheMap(lookTwo)) {
     		return false;
-    	} else if (rc.senseMapInfo(lookTwo).isWall()) {
+    	} else if (senseInfo(rc, lookTwo).isWall()) {
     		return false;
     	}
     	if (canFill(rc, rc.getLocation().add(Direction.SOUTH))) {fill(rc, rc.getLocation().add(Direction.SOUTH));}
@@ -1544,7 +3024,7 @@ public class RobotPlayer {
     	MapLocation lookTwo = rc.getLocation().add(Direction.SOUTH).add(Direction.SOUTHWEST);
     	if (!rc.onTheMap(lookTwo)) {
     		return false;
-    	} else if (rc.senseMapInfo(lookTwo).isWall()) {
+    	} else if (senseInfo(rc, lookTwo).isWall()) {
     		return false;
     	}
     	if (canFill(rc, rc.getLocation().add(Direction.SOUTH))) {fill(rc, rc.getLocation().add(Direction.SOUTH));}
@@ -1568,7 +3048,7 @@ public class RobotPlayer {
     	MapLocation lookTwo = rc.getLocation().add(Direction.SOUTHWEST).add(Direction.SOUTHWEST);
     	if (!rc.onTheMap(lookTwo)) {
     		return false;
-    	} else if (rc.senseMapInfo(lookTwo).isWall()) {
+    	} else if (senseInfo(rc, lookTwo).isWall()) {
     		return false;
     	}
     	if (canFill(rc, rc.getLocation().add(Direction.SOUTHWEST))) {fill(rc, rc.getLocation().add(Direction.SOUTHWEST));}
@@ -1588,7 +3068,7 @@ public class RobotPlayer {
     	MapLocation lookTwo = rc.getLocation().add(Direction.WEST).add(Direction.SOUTHWEST);
     	if (!rc.onTheMap(lookTwo)) {
     		return false;
-    	} else if (rc.senseMapInfo(lookTwo).isWall()) {
+    	} else if (senseInfo(rc, lookTwo).isWall()) {
     		return false;
     	}
     	if (canFill(rc, rc.getLocation().add(Direction.WEST))) {fill(rc, rc.getLocation().add(Direction.WEST));}
@@ -1612,7 +3092,7 @@ public class RobotPlayer {
     	MapLocation lookTwo = rc.getLocation().add(Direction.WEST).add(Direction.WEST);
     	if (!rc.onTheMap(lookTwo)) {
     		return false;
-    	} else if (rc.senseMapInfo(lookTwo).isWall()) {
+    	} else if (senseInfo(rc, lookTwo).isWall()) {
     		return false;
     	}
     	if (canFill(rc, rc.getLocation().add(Direction.WEST))) {fill(rc, rc.getLocation().add(Direction.WEST));}
@@ -1640,7 +3120,7 @@ public class RobotPlayer {
     	MapLocation lookTwo = rc.getLocation().add(Direction.WEST).add(Direction.NORTHWEST);
     	if (!rc.onTheMap(lookTwo)) {
     		return false;
-    	} else if (rc.senseMapInfo(lookTwo).isWall()) {
+    	} else if (senseInfo(rc, lookTwo).isWall()) {
     		return false;
     	}
     	if (canFill(rc, rc.getLocation().add(Direction.WEST))) {fill(rc, rc.getLocation().add(Direction.WEST));}
@@ -1664,7 +3144,7 @@ public class RobotPlayer {
     	MapLocation lookTwo = rc.getLocation().add(Direction.NORTHWEST).add(Direction.NORTHWEST);
     	if (!rc.onTheMap(lookTwo)) {
     		return false;
-    	} else if (rc.senseMapInfo(lookTwo).isWall()) {
+    	} else if (senseInfo(rc, lookTwo).isWall()) {
     		return false;
     	}
     	if (canFill(rc, rc.getLocation().add(Direction.NORTHWEST))) {fill(rc, rc.getLocation().add(Direction.NORTHWEST));}
@@ -1684,7 +3164,7 @@ public class RobotPlayer {
     	MapLocation lookTwo = rc.getLocation().add(Direction.NORTH).add(Direction.NORTHWEST);
     	if (!rc.onTheMap(lookTwo)) {
     		return false;
-    	} else if (rc.senseMapInfo(lookTwo).isWall()) {
+    	} else if (senseInfo(rc, lookTwo).isWall()) {
     		return false;
     	}
     	if (canFill(rc, rc.getLocation().add(Direction.NORTH))) {fill(rc, rc.getLocation().add(Direction.NORTH));}
@@ -1868,16 +3348,17 @@ public class RobotPlayer {
 
 	public static boolean canFill(RobotController rc, MapLocation loc) throws GameActionException {
 		if (rc.canSenseLocation(loc)) {
-			MapInfo locInfo = rc.senseMapInfo(loc);
+			MapInfo locInfo = senseInfo(rc, loc);
 			return rc.canAttack(loc) && locInfo.isPassable() && !locInfo.getPaint().isAlly();
 		} else {return false;}
 	}
 
 	public static void fill(RobotController rc, MapLocation loc) throws GameActionException {
 		if (rc.canSenseLocation(loc)) {
-			MapInfo locInfo = rc.senseMapInfo(loc);
+			MapInfo locInfo = senseInfo(rc, loc);
 			if (rc.canAttack(loc) && locInfo.isPassable() && !locInfo.getPaint().isAlly()) {
 				rc.attack(loc);
+				forgetInfo(loc);
 			}
 		}
 	}
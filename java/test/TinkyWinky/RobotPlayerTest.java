@@ -0,0 +1,22 @@
+package TinkyWinky;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import battlecode.common.UnitType;
+
+public class RobotPlayerTest {
+
+	@Test
+	public void testPatternTables() {
+		// Tower patterns leave the ruin itself alone, an SRP paints its center too
+		for (int type = 1; type <= 3; type++) {
+			assertEquals(0, RobotPlayer.PATTERN_PAINT[type] & (1 << 12));
+		}
+		assertEquals(0x1FFFFFF, RobotPlayer.PATTERN_PAINT[4]);
+		assertEquals(UnitType.LEVEL_ONE_MONEY_TOWER, RobotPlayer.PATTERN_TOWERS[1]);
+		assertEquals(UnitType.LEVEL_ONE_PAINT_TOWER, RobotPlayer.PATTERN_TOWERS[2]);
+		assertEquals(UnitType.LEVEL_ONE_DEFENSE_TOWER, RobotPlayer.PATTERN_TOWERS[3]);
+	}
+
+}